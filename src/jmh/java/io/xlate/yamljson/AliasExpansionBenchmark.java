@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time to stream every event of a document made of chained
+ * aliases, each level expanding to ten times the scalars of the previous.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class AliasExpansionBenchmark {
+
+    @Param({ Yaml.Versions.V1_1, Yaml.Versions.V1_2 })
+    public String version;
+
+    @Param({ "5", "6" })
+    public int levels;
+
+    JsonParserFactory factory;
+    String laughs;
+
+    @Setup
+    public void setup() {
+        factory = BenchmarkDocuments.parserFactory(version);
+        laughs = BenchmarkDocuments.laughs(levels);
+    }
+
+    @Benchmark
+    public long expandAliases() {
+        long events = 0;
+
+        try (JsonParser parser = factory.createParser(new StringReader(laughs))) {
+            while (parser.hasNext()) {
+                parser.next();
+                events++;
+            }
+        }
+
+        return events;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.json.stream.JsonParserFactory;
+
+/**
+ * Synthetic YAML documents shared by the benchmarks.
+ */
+final class BenchmarkDocuments {
+
+    private BenchmarkDocuments() {
+    }
+
+    static JsonParserFactory parserFactory(String version) {
+        return parserFactory(version, Map.of());
+    }
+
+    static JsonParserFactory parserFactory(String version, Map<String, ?> settings) {
+        Map<String, Object> properties = new HashMap<>(settings);
+        properties.put(Yaml.Settings.YAML_VERSION, version);
+        return Yaml.createParserFactory(properties);
+    }
+
+    /**
+     * A Kubernetes-style manifest list with the given number of items, mixing
+     * strings, numbers, booleans, nested structures and anchors/aliases.
+     */
+    static String manifests(int items) {
+        StringBuilder yaml = new StringBuilder("---\n");
+        yaml.append("defaults: &defaults\n");
+        yaml.append("  restartPolicy: Always\n");
+        yaml.append("  terminationGracePeriodSeconds: 30\n");
+        yaml.append("items:\n");
+
+        for (int i = 0; i < items; i++) {
+            yaml.append("- apiVersion: apps/v1\n");
+            yaml.append("  kind: Deployment\n");
+            yaml.append("  metadata:\n");
+            yaml.append("    name: service-").append(i).append('\n');
+            yaml.append("    namespace: default\n");
+            yaml.append("    generation: ").append(i * 7).append('\n');
+            yaml.append("  spec:\n");
+            yaml.append("    replicas: ").append(i % 5 + 1).append('\n');
+            yaml.append("    paused: ").append(i % 2 == 0).append('\n');
+            yaml.append("    template:\n");
+            yaml.append("      spec:\n");
+            yaml.append("        <<: *defaults\n");
+            yaml.append("        containers:\n");
+            yaml.append("        - name: app\n");
+            yaml.append("          image: registry.example.com/service-").append(i).append(":1.").append(i % 10).append('\n');
+            yaml.append("          ports: [ 8080, 8443 ]\n");
+            yaml.append("          resources:\n");
+            yaml.append("            limits: { cpu: 0.5, memory: 512Mi }\n");
+        }
+
+        return yaml.toString();
+    }
+
+    /**
+     * A document consisting mostly of numeric scalars: a sequence of rows each
+     * holding integer, hexadecimal and floating point values.
+     */
+    static String numbers(int rows) {
+        StringBuilder yaml = new StringBuilder("---\n");
+
+        for (int i = 0; i < rows; i++) {
+            yaml.append("- [ ")
+                .append(i).append(", ")
+                .append(i * 1_000_003L).append(", ")
+                .append("0x").append(Integer.toHexString(i)).append(", ")
+                .append(i).append(".25, ")
+                .append(i).append("e-3, ")
+                .append(-i * 31).append(" ]\n");
+        }
+
+        return yaml.toString();
+    }
+
+    /**
+     * A "billion laughs" style document where each anchor is a sequence of ten
+     * aliases of the previous anchor, the last level expanding to
+     * 10<sup>levels</sup> scalars.
+     */
+    static String laughs(int levels) {
+        StringBuilder yaml = new StringBuilder("---\n");
+        yaml.append("lol0: &lol0 \"lol\"\n");
+
+        for (int i = 1; i <= levels; i++) {
+            yaml.append("lol").append(i).append(": &lol").append(i).append(" [ ");
+
+            for (int j = 0; j < 10; j++) {
+                yaml.append(j > 0 ? ", " : "").append("*lol").append(i - 1);
+            }
+
+            yaml.append(" ]\n");
+        }
+
+        return yaml.toString();
+    }
+}
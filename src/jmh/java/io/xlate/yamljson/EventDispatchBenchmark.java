@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+import org.snakeyaml.engine.v2.events.Event;
+import org.snakeyaml.engine.v2.parser.ParserImpl;
+import org.snakeyaml.engine.v2.scanner.StreamReader;
+
+/**
+ * Compares dispatching on the string form of the backend event ID (the former
+ * approach) with dispatching on the {@link YamlParser.EventType} mapped from
+ * the event ID enum, over the event sequence of a realistic document.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class EventDispatchBenchmark {
+
+    Event.ID[] eventIds;
+
+    @Setup
+    public void setup() {
+        LoadSettings settings = LoadSettings.builder().build();
+        String yaml = BenchmarkDocuments.manifests(100);
+        ParserImpl parser = new ParserImpl(settings, new StreamReader(settings, new StringReader(yaml)));
+        List<Event.ID> ids = new ArrayList<>();
+        parser.forEachRemaining(event -> ids.add(event.getEventId()));
+        eventIds = ids.toArray(new Event.ID[0]);
+    }
+
+    @Benchmark
+    public int stringDispatch() {
+        int result = 0;
+
+        for (Event.ID id : eventIds) {
+            switch (id.toString()) {
+            case "MappingStart":
+            case "SequenceStart":
+                result += 1;
+                break;
+            case "MappingEnd":
+            case "SequenceEnd":
+                result += 2;
+                break;
+            case "Scalar":
+                result += 3;
+                break;
+            case "Alias":
+                result += 4;
+                break;
+            default:
+                result += 5;
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int enumDispatch() {
+        int result = 0;
+
+        for (Event.ID id : eventIds) {
+            switch (SnakeYamlEngineParser.EVENT_TYPES.get(id)) {
+            case MAPPING_START:
+            case SEQUENCE_START:
+                result += 1;
+                break;
+            case MAPPING_END:
+            case SEQUENCE_END:
+                result += 2;
+                break;
+            case SCALAR:
+                result += 3;
+                break;
+            case ALIAS:
+                result += 4;
+                break;
+            default:
+                result += 5;
+                break;
+            }
+        }
+
+        return result;
+    }
+}
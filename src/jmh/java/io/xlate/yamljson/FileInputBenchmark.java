@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares parsing a file with {@link Yaml#createParser(JsonParserFactory, Path)},
+ * which maps large files into memory, with parsing a stream opened on the
+ * file. With 100 items the file is small enough to be read into a heap buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class FileInputBenchmark {
+
+    @Param({ Yaml.Versions.V1_1, Yaml.Versions.V1_2 })
+    public String version;
+
+    @Param({ "100", "10000" })
+    public int items;
+
+    JsonParserFactory factory;
+    Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        factory = BenchmarkDocuments.parserFactory(version);
+        file = Files.createTempFile("manifests", ".yaml");
+        Files.write(file, BenchmarkDocuments.manifests(items).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public void path(Blackhole blackhole) {
+        try (JsonParser parser = Yaml.createParser(factory, file)) {
+            parse(parser, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void inputStream(Blackhole blackhole) throws IOException {
+        try (InputStream in = Files.newInputStream(file); JsonParser parser = factory.createParser(in)) {
+            parse(parser, blackhole);
+        }
+    }
+
+    static void parse(JsonParser parser, Blackhole blackhole) {
+        while (parser.hasNext()) {
+            blackhole.consume(parser.next());
+        }
+    }
+}
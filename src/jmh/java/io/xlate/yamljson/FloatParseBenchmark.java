@@ -0,0 +1,71 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.ParsePosition;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link YamlNumbers#parseFloat(CharSequence)} with the
+ * {@link DecimalFormat} approach it replaced and with
+ * {@link BigDecimal#BigDecimal(String)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class FloatParseBenchmark {
+
+    @Param({ "1.5", "-0.00001", "6.02214076e23", "3.14159265358979323846264" })
+    public String text;
+
+    final DecimalFormat decimalParser = new DecimalFormat();
+    final ParsePosition decimalPosition = new ParsePosition(0);
+
+    @Benchmark
+    public BigDecimal decimalFormat() {
+        decimalPosition.setIndex(0);
+        decimalParser.setParseBigDecimal(true);
+        String input = text;
+        if (input.indexOf('e') >= 0) {
+            input = input.replace('e', 'E');
+        }
+        return (BigDecimal) decimalParser.parse(input, decimalPosition);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalConstructor() {
+        return new BigDecimal(text);
+    }
+
+    @Benchmark
+    public BigDecimal scanner() {
+        return YamlNumbers.parseFloat(text);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares parsing a UTF-8 encoded byte stream through the parser's own
+ * decoder with decoding it by an {@link InputStreamReader}. The non-ASCII
+ * variant appends a multi-byte character to every item name.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class InputStreamBenchmark {
+
+    @Param({ Yaml.Versions.V1_1, Yaml.Versions.V1_2 })
+    public String version;
+
+    @Param({ "1000" })
+    public int items;
+
+    @Param({ "true", "false" })
+    public boolean ascii;
+
+    JsonParserFactory factory;
+    byte[] manifests;
+
+    @Setup
+    public void setup() {
+        factory = BenchmarkDocuments.parserFactory(version);
+        String yaml = BenchmarkDocuments.manifests(items);
+
+        if (!ascii) {
+            yaml = yaml.replace("name: service-", "name: sérvice-");
+        }
+
+        manifests = yaml.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void inputStream(Blackhole blackhole) {
+        try (JsonParser parser = factory.createParser(new ByteArrayInputStream(manifests))) {
+            parse(parser, blackhole);
+        }
+    }
+
+    @Benchmark
+    public void inputStreamReader(Blackhole blackhole) {
+        try (JsonParser parser = factory.createParser(new InputStreamReader(new ByteArrayInputStream(manifests), StandardCharsets.UTF_8))) {
+            parse(parser, blackhole);
+        }
+    }
+
+    static void parse(JsonParser parser, Blackhole blackhole) {
+        while (parser.hasNext()) {
+            blackhole.consume(parser.next());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+import jakarta.json.stream.JsonParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parses a number-heavy document while accessing the numeric scalars in
+ * different ways, from not at all to full {@code BigDecimal} materialization.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class NumberBenchmark {
+
+    @Param({ Yaml.Versions.V1_1, Yaml.Versions.V1_2 })
+    public String version;
+
+    @Param({ "5000" })
+    public int rows;
+
+    JsonParserFactory factory;
+    String numbers;
+
+    @Setup
+    public void setup() {
+        factory = BenchmarkDocuments.parserFactory(version);
+        numbers = BenchmarkDocuments.numbers(rows);
+    }
+
+    @Benchmark
+    public void numbersUnread(Blackhole blackhole) {
+        try (JsonParser parser = factory.createParser(new StringReader(numbers))) {
+            while (parser.hasNext()) {
+                blackhole.consume(parser.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public void numbersAsString(Blackhole blackhole) {
+        try (JsonParser parser = factory.createParser(new StringReader(numbers))) {
+            while (parser.hasNext()) {
+                if (parser.next() == Event.VALUE_NUMBER) {
+                    blackhole.consume(parser.getString());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void numbersAsLong(Blackhole blackhole) {
+        try (JsonParser parser = factory.createParser(new StringReader(numbers))) {
+            while (parser.hasNext()) {
+                if (parser.next() == Event.VALUE_NUMBER && parser.isIntegralNumber()) {
+                    blackhole.consume(parser.getLong());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void numbersAsBigDecimal(Blackhole blackhole) {
+        try (JsonParser parser = factory.createParser(new StringReader(numbers))) {
+            while (parser.hasNext()) {
+                if (parser.next() == Event.VALUE_NUMBER) {
+                    blackhole.consume(parser.getBigDecimal());
+                }
+            }
+        }
+    }
+}
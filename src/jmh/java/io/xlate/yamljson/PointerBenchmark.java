@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.Json;
+import jakarta.json.JsonPointer;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonReaderFactory;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading the containers of an item in the middle of a large
+ * manifest list using {@link Yaml#readValue(JsonParserFactory, java.io.Reader, String)}
+ * with reading the whole document and applying the pointer to the result.
+ * The manifest list is a mapping, and each mapping on the path gives the
+ * member explicitly, so {@code readValue} reads only the first half of the
+ * document.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class PointerBenchmark {
+
+    @Param({ Yaml.Versions.V1_1, Yaml.Versions.V1_2 })
+    public String version;
+
+    @Param({ "1000", "10000" })
+    public int items;
+
+    JsonParserFactory parserFactory;
+    JsonReaderFactory readerFactory;
+    String manifests;
+    String pointer;
+    JsonPointer jsonPointer;
+
+    @Setup
+    public void setup() {
+        parserFactory = BenchmarkDocuments.parserFactory(version);
+        readerFactory = Yaml.createReaderFactory(parserFactory.getConfigInUse());
+        manifests = BenchmarkDocuments.manifests(items);
+        pointer = "/items/" + (items / 2) + "/spec/template/spec/containers";
+        jsonPointer = Json.createPointer(pointer);
+    }
+
+    @Benchmark
+    public JsonValue readValue() {
+        return Yaml.readValue(parserFactory, new StringReader(manifests), pointer);
+    }
+
+    @Benchmark
+    public JsonValue readDocument() {
+        try (JsonReader reader = readerFactory.createReader(new StringReader(manifests))) {
+            return jsonPointer.getValue(reader.read());
+        }
+    }
+}
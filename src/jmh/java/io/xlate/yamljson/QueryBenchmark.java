@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonReaderFactory;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares collecting the name of every item and every container image of a
+ * large manifest list with a single pass of two queries against reading the
+ * whole document and navigating the result.
+ * <p>
+ * The manifest list is a mapping (with the items under its {@code items} key),
+ * as a Kubernetes List. {@code firstMatch} measures obtaining the first item
+ * name from the stream of matches, which reads only as far as the first item
+ * since matches within explicit entries of a mapping are final when found. A
+ * match within an entry merged with a merge key ({@code <<}) would instead be
+ * given only once its mapping ends.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+
+    @Param({ Yaml.Versions.V1_1, Yaml.Versions.V1_2 })
+    public String version;
+
+    @Param({ "1000", "10000" })
+    public int items;
+
+    JsonParserFactory parserFactory;
+    JsonReaderFactory readerFactory;
+    String manifests;
+    YamlQuery names;
+    YamlQuery images;
+
+    @Setup
+    public void setup() {
+        parserFactory = BenchmarkDocuments.parserFactory(version);
+        readerFactory = Yaml.createReaderFactory(parserFactory.getConfigInUse());
+        manifests = BenchmarkDocuments.manifests(items);
+        names = Yaml.createQuery("$.items[*].metadata.name");
+        images = Yaml.createQuery("$..image");
+    }
+
+    @Benchmark
+    public void query(Blackhole bh) {
+        Yaml.query(parserFactory, new StringReader(manifests), (query, value) -> bh.consume(value), names, images);
+    }
+
+    @Benchmark
+    public JsonValue firstMatch() {
+        try (Stream<JsonValue> matches = Yaml.query(parserFactory, new StringReader(manifests), names)) {
+            return matches.findFirst().orElseThrow();
+        }
+    }
+
+    @Benchmark
+    public void readDocument(Blackhole bh) {
+        try (JsonReader reader = readerFactory.createReader(new StringReader(manifests))) {
+            for (JsonValue item : reader.readObject().getJsonArray("items")) {
+                JsonObject manifest = item.asJsonObject();
+                bh.consume(manifest.getJsonObject("metadata").get("name"));
+
+                for (JsonValue container : manifest.getJsonObject("spec")
+                                                   .getJsonObject("template")
+                                                   .getJsonObject("spec")
+                                                   .getJsonArray("containers")) {
+                    bh.consume(container.asJsonObject().get("image"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+import jakarta.json.stream.JsonParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares skipping a sequence using {@link JsonParser#skipArray()} with
+ * pulling each of its events: the item list of a manifest document, or the
+ * last level of a document of chained aliases (see
+ * {@link BenchmarkDocuments#laughs(int)}), which is not expanded when
+ * skipped.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class SkipBenchmark {
+
+    @Param({ Yaml.Versions.V1_1, Yaml.Versions.V1_2 })
+    public String version;
+
+    @Param({ "manifests", "aliases" })
+    public String document;
+
+    JsonParserFactory factory;
+    String yaml;
+    String key;
+
+    @Setup
+    public void setup() {
+        factory = BenchmarkDocuments.parserFactory(version);
+
+        if ("aliases".equals(document)) {
+            yaml = BenchmarkDocuments.laughs(5);
+            key = "lol5";
+        } else {
+            yaml = BenchmarkDocuments.manifests(1000);
+            key = "items";
+        }
+    }
+
+    JsonParser parserAtItems() {
+        JsonParser parser = factory.createParser(new StringReader(yaml));
+
+        while (parser.next() != Event.KEY_NAME || !key.equals(parser.getString())) {
+            // Advance to the sequence
+        }
+
+        parser.next();
+        return parser;
+    }
+
+    @Benchmark
+    public Event skipItems() {
+        try (JsonParser parser = parserAtItems()) {
+            parser.skipArray();
+            return parser.currentEvent();
+        }
+    }
+
+    @Benchmark
+    public Event scanItems() {
+        try (JsonParser parser = parserAtItems()) {
+            int depth = 1;
+
+            while (depth > 0) {
+                switch (parser.next()) {
+                case START_ARRAY:
+                case START_OBJECT:
+                    depth++;
+                    break;
+                case END_ARRAY:
+                case END_OBJECT:
+                    depth--;
+                    break;
+                default:
+                    break;
+                }
+            }
+
+            return parser.currentEvent();
+        }
+    }
+}
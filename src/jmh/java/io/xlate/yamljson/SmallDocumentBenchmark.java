@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latency of parsing a small request-sized payload into a JsonValue, where
+ * per-parser setup costs dominate, with and without a pool of parser buffers
+ * ({@link Yaml.Settings#LOAD_BUFFER_POOL_SIZE}), or by a single parser reset
+ * for each payload ({@link Yaml#resetParser(JsonParser, java.io.InputStream)}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class SmallDocumentBenchmark {
+
+    static final String DOCUMENT = "id: 42\nname: widget\ntags: [ a, b ]\nprice: 9.95\n";
+    static final byte[] DOCUMENT_BYTES = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+
+    @Param({ Yaml.Versions.V1_1, Yaml.Versions.V1_2 })
+    public String version;
+
+    @Param({ "0", "16" })
+    public int bufferPoolSize;
+
+    JsonParserFactory factory;
+    JsonParser reusedParser;
+
+    @Setup
+    public void setup() {
+        factory = BenchmarkDocuments.parserFactory(version, Map.of(Yaml.Settings.LOAD_BUFFER_POOL_SIZE, bufferPoolSize));
+        reusedParser = factory.createParser(new StringReader(""));
+    }
+
+    @TearDown
+    public void tearDown() {
+        reusedParser.close();
+    }
+
+    @Benchmark
+    public JsonValue parseValue() {
+        try (JsonParser parser = factory.createParser(new StringReader(DOCUMENT))) {
+            parser.next();
+            return parser.getValue();
+        }
+    }
+
+    @Benchmark
+    public JsonValue parseStream() {
+        try (JsonParser parser = factory.createParser(new ByteArrayInputStream(DOCUMENT_BYTES))) {
+            parser.next();
+            return parser.getValue();
+        }
+    }
+
+    @Benchmark
+    public JsonValue resetStream() {
+        JsonParser parser = Yaml.resetParser(reusedParser, new ByteArrayInputStream(DOCUMENT_BYTES));
+        parser.next();
+        return parser.getValue();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares building a document with {@link JsonParser#getValue()} using the
+ * compact values of this library with building it using the Parsson provider
+ * (configured with {@link Yaml.Settings#JSON_PROVIDER}).
+ * <p>
+ * Run with {@code -prof gc} to compare the bytes allocated per document
+ * ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ValueTreeBenchmark {
+
+    @Param({ Yaml.Versions.V1_1, Yaml.Versions.V1_2 })
+    public String version;
+
+    @Param({ "1000" })
+    public int items;
+
+    @Param({ "compact", "parsson" })
+    public String values;
+
+    JsonParserFactory factory;
+    String manifests;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> settings = new HashMap<>();
+
+        if ("parsson".equals(values)) {
+            settings.put(Yaml.Settings.JSON_PROVIDER, JsonProvider.provider());
+        }
+
+        factory = BenchmarkDocuments.parserFactory(version, settings);
+        manifests = BenchmarkDocuments.manifests(items);
+    }
+
+    @Benchmark
+    public JsonValue getValue() {
+        try (JsonParser parser = factory.createParser(new StringReader(manifests))) {
+            parser.next();
+            return parser.getValue();
+        }
+    }
+}
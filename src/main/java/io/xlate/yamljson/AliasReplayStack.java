@@ -0,0 +1,166 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import jakarta.json.stream.JsonParser.Event;
+
+/**
+ * Stack of cursors over ranges of recorded anchor events, one for each alias
+ * currently being expanded. The events of an alias are served from the
+ * recorded anchor one at a time rather than being copied, and an alias nested
+ * within a replayed range pushes a new cursor that is exhausted before the
+ * enclosing cursor resumes.
+ *
+ * Cursors are removed as soon as their last event is served so that a
+ * non-empty stack always has another event available.
+ */
+final class AliasReplayStack {
+
+    static final int DEFAULT_CAPACITY = 8;
+
+    private int[] positions = new int[DEFAULT_CAPACITY];
+    private int[] ends = new int[DEFAULT_CAPACITY];
+    private Event[] overrides = new Event[DEFAULT_CAPACITY];
+    private boolean[] merges = new boolean[DEFAULT_CAPACITY];
+    private int[] depths = new int[DEFAULT_CAPACITY];
+    private int size;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return positions.length;
+    }
+
+    /**
+     * Push a cursor over the range of recorded events from start (inclusive)
+     * to end (exclusive). An empty range is ignored.
+     *
+     * @param start         index of the first event to replay
+     * @param end           index following the last event to replay
+     * @param eventOverride JSON event to report for each replayed event in
+     *                      place of the recorded event, or null
+     * @param merge         whether the range holds the entries of a mapping
+     *                      merged into the enclosing mapping by a merge key
+     */
+    void push(int start, int end, Event eventOverride, boolean merge) {
+        if (start >= end) {
+            return;
+        }
+
+        if (size == positions.length) {
+            int capacity = size << 1;
+            positions = Arrays.copyOf(positions, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            overrides = Arrays.copyOf(overrides, capacity);
+            merges = Arrays.copyOf(merges, capacity);
+            depths = Arrays.copyOf(depths, capacity);
+        }
+
+        positions[size] = start;
+        ends[size] = end;
+        overrides[size] = eventOverride;
+        merges[size] = merge;
+        depths[size] = 0;
+        size++;
+    }
+
+    /**
+     * @return the JSON event override of the cursor that will serve the next
+     *         event, or null if none was given
+     */
+    Event eventOverride() {
+        assertNotEmpty();
+        return overrides[size - 1];
+    }
+
+    /**
+     * Find the number of merge keys through which the next event (when a key)
+     * is merged into the mapping being read: the number of merged mappings
+     * whose top level entries are being replayed by the innermost cursors.
+     *
+     * @return the merge level of the next event, zero when it is not merged
+     */
+    int mergeLevel() {
+        int level = 0;
+
+        for (int i = size - 1; i >= 0 && depths[i] == 0; i--) {
+            if (merges[i]) {
+                level++;
+            }
+        }
+
+        return level;
+    }
+
+    /**
+     * @return the index of the next event to replay
+     */
+    int position() {
+        assertNotEmpty();
+        return positions[size - 1];
+    }
+
+    /**
+     * Advance the innermost cursor past the next event, removing the cursor if
+     * exhausted.
+     *
+     * @param event the JSON event recorded for the event replayed
+     */
+    void advance(Event event) {
+        assertNotEmpty();
+        final int top = size - 1;
+
+        if (++positions[top] == ends[top]) {
+            overrides[top] = null;
+            size--;
+        } else if (merges[top]) {
+            depths[top] += depthChange(event);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(overrides, 0, size, null);
+        size = 0;
+    }
+
+    private static int depthChange(Event event) {
+        switch (event) {
+        case START_ARRAY:
+        case START_OBJECT:
+            return 1;
+        case END_ARRAY:
+        case END_OBJECT:
+            return -1;
+        default:
+            return 0;
+        }
+    }
+
+    private void assertNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("No alias is being replayed");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.Arrays;
+
+/**
+ * Growable stack of the structures (mappings and sequences) enclosing the
+ * current position of the parser. The state of each level is packed into a
+ * single int:
+ *
+ * <ul>
+ * <li>bit 0: the level is an object (mapping), otherwise an array
+ * <li>bit 1: the next scalar at this level is a key (objects only)
+ * <li>bit 2: the current key of this level is the merge key ({@code <<})
+ * <li>bits 3-31: one more than the depth of the nearest enclosing level of the
+ * other structure type, allowing {@link #lastIndexOf(boolean)} in constant time
+ * </ul>
+ */
+final class NestingStack {
+
+    private static final int OBJECT = 1;
+    private static final int KEY_EXPECTED = 1 << 1;
+    private static final int MERGE = 1 << 2;
+    private static final int FLAG_BITS = 3;
+
+    static final int DEFAULT_CAPACITY = 16;
+
+    private int[] levels = new int[DEFAULT_CAPACITY];
+    private int depth = -1;
+
+    /**
+     * @return the depth of the current (innermost) level, or -1 when outside of
+     *         any structure
+     */
+    int depth() {
+        return depth;
+    }
+
+    boolean isEmpty() {
+        return depth < 0;
+    }
+
+    int capacity() {
+        return levels.length;
+    }
+
+    void push(boolean object) {
+        final int outer = depth;
+
+        if (++depth == levels.length) {
+            levels = Arrays.copyOf(levels, levels.length << 1);
+        }
+
+        final int otherTypeDepth;
+
+        if (outer < 0) {
+            otherTypeDepth = -1;
+        } else if (isObject(levels[outer]) != object) {
+            otherTypeDepth = outer;
+        } else {
+            otherTypeDepth = (levels[outer] >>> FLAG_BITS) - 1;
+        }
+
+        int level = (otherTypeDepth + 1) << FLAG_BITS;
+
+        if (object) {
+            level |= OBJECT | KEY_EXPECTED;
+        }
+
+        levels[depth] = level;
+    }
+
+    void pop() {
+        depth--;
+    }
+
+    void clear() {
+        depth = -1;
+    }
+
+    boolean inObject() {
+        return depth >= 0 && isObject(levels[depth]);
+    }
+
+    /**
+     * @return true when the current level is an object and the next scalar
+     *         will be a key
+     */
+    boolean isKeyExpected() {
+        return depth >= 0 && (levels[depth] & (OBJECT | KEY_EXPECTED)) == (OBJECT | KEY_EXPECTED);
+    }
+
+    void setKeyExpected(boolean keyExpected) {
+        set(KEY_EXPECTED, keyExpected);
+    }
+
+    boolean isMerge() {
+        return depth >= 0 && (levels[depth] & MERGE) != 0;
+    }
+
+    void setMerge(boolean merge) {
+        set(MERGE, merge);
+    }
+
+    /**
+     * Find the depth of the innermost level of the given structure type.
+     *
+     * @param object true to find the innermost object, false for the innermost
+     *               array
+     * @return the depth of the innermost level with the given type, or -1 if
+     *         none is open
+     */
+    int lastIndexOf(boolean object) {
+        if (depth < 0) {
+            return -1;
+        }
+
+        final int level = levels[depth];
+
+        if (isObject(level) == object) {
+            return depth;
+        }
+
+        return (level >>> FLAG_BITS) - 1;
+    }
+
+    private void set(int flag, boolean value) {
+        if (value) {
+            levels[depth] |= flag;
+        } else {
+            levels[depth] &= ~flag;
+        }
+    }
+
+    private static boolean isObject(int level) {
+        return (level & OBJECT) != 0;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of the {@link ParserBuffers scratch buffers} of the parsers
+ * created by a factory, avoiding their allocation (and growth) for each
+ * parser when many small inputs are parsed.
+ * <p>
+ * Idle sets are held in a stack guarded by the pool's monitor, which is held
+ * only to push or pop a single reference. A set is discarded rather than
+ * returned when the pool is full, or when any of its structures has grown
+ * beyond the configured maximum capacity, so that a single large input does
+ * not retain memory for the life of the factory.
+ */
+final class ParserBufferPool {
+
+    private final ParserBuffers[] idle;
+    private final int maxCapacity;
+    private int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    ParserBufferPool(int size, int maxCapacity) {
+        this.idle = new ParserBuffers[size];
+        this.maxCapacity = maxCapacity;
+    }
+
+    /**
+     * Obtain an idle set of buffers, or a new set if none is idle.
+     */
+    ParserBuffers borrow() {
+        ParserBuffers buffers = null;
+
+        synchronized (this) {
+            if (size > 0) {
+                buffers = idle[--size];
+                idle[size] = null;
+            }
+        }
+
+        if (buffers != null) {
+            hits.increment();
+            return buffers;
+        }
+
+        misses.increment();
+        return new ParserBuffers(this);
+    }
+
+    /**
+     * Return a cleared set of buffers to the pool.
+     */
+    void release(ParserBuffers buffers) {
+        if (buffers.capacity() <= maxCapacity) {
+            synchronized (this) {
+                if (size < idle.length) {
+                    idle[size++] = buffers;
+                    return;
+                }
+            }
+        }
+
+        evictions.increment();
+    }
+
+    synchronized int idleCount() {
+        return size;
+    }
+
+    Yaml.CacheStatistics statistics() {
+        return new Yaml.CacheStatistics(hits.sum(), misses.sum(), evictions.sum());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.json.JsonValue;
+
+/**
+ * The scratch structures of a parser: the buffer used to decode UTF-8 input,
+ * the queue and stacks of the events being read, the stacks used to build
+ * values and the events recorded for anchors. A set is borrowed from the
+ * {@link ParserBufferPool pool} of the factory (if enabled) when a parser is
+ * created and returned, cleared, when the parser is closed.
+ * <p>
+ * The arrays used to build values are replaced by the parser when they grow,
+ * and written back to the set before it is released.
+ */
+final class ParserBuffers {
+
+    /**
+     * The pool to which this set is returned, or null when not pooled.
+     */
+    final ParserBufferPool pool;
+
+    private byte[] decodeBuffer;
+
+    final YamlEventQueue<?> eventQueue = new YamlEventQueue<>();
+    final NestingStack nesting = new NestingStack();
+    final AliasReplayStack replayStack = new AliasReplayStack();
+    final List<YamlParser.AnchoredEvent<?>> anchoredEvents = new ArrayList<>();
+    final Map<String, YamlParser.AnchorMetadata> anchors = new HashMap<>();
+    final Deque<YamlParser.AnchorMetadata> anchorStack = new ArrayDeque<>();
+
+    String[] entryKeys = new String[16];
+    int[] entryMergeLevels = new int[16];
+    JsonValue[] entryValues = new JsonValue[16];
+    int[] structureStarts = new int[8];
+    String[] structureKeys = new String[8];
+    int[] structureMergeLevels = new int[8];
+    /**
+     * The largest number of events recorded for the anchors of a single
+     * document, retained as the capacity of {@link #anchoredEvents}.
+     */
+    int anchoredEventsPeak;
+
+    ParserBuffers(ParserBufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Obtain the buffer used to decode UTF-8 input, allocated on first use.
+     */
+    byte[] decodeBuffer() {
+        if (decodeBuffer == null) {
+            decodeBuffer = new byte[Utf8Reader.BUFFER_SIZE];
+        }
+        return decodeBuffer;
+    }
+
+    /**
+     * @return the largest number of elements held by any of the structures
+     *         of this set
+     */
+    int capacity() {
+        int capacity = Math.max(eventQueue.capacity(), anchoredEventsPeak);
+        // The arrays of each stack grow together
+        capacity = Math.max(capacity, entryValues.length);
+        capacity = Math.max(capacity, structureStarts.length);
+        capacity = Math.max(capacity, nesting.capacity());
+        return Math.max(capacity, replayStack.capacity());
+    }
+
+    /**
+     * Release the references held by the structures and reset their state.
+     */
+    void clear() {
+        eventQueue.clear();
+        nesting.clear();
+        replayStack.clear();
+        anchoredEvents.clear();
+        anchors.clear();
+        anchorStack.clear();
+        Arrays.fill(entryKeys, null);
+        Arrays.fill(entryValues, null);
+        Arrays.fill(structureKeys, null);
+    }
+
+    /**
+     * Return this set to its pool, if any.
+     */
+    void release() {
+        if (pool != null) {
+            clear();
+            pool.release(this);
+        }
+    }
+}
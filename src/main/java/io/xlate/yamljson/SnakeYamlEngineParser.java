@@ -16,13 +16,52 @@
 package io.xlate.yamljson;
 
 import java.io.Reader;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import jakarta.json.spi.JsonProvider;
+
 final class SnakeYamlEngineParser extends YamlParser<org.snakeyaml.engine.v2.events.Event, org.snakeyaml.engine.v2.exceptions.Mark> {
 
-    SnakeYamlEngineParser(Iterator<org.snakeyaml.engine.v2.events.Event> yamlEvents, Reader yamlReader, Map<String, ?> properties) {
-        super(yamlEvents, yamlReader, properties);
+    static final Map<org.snakeyaml.engine.v2.events.Event.ID, EventType> EVENT_TYPES = new EnumMap<>(org.snakeyaml.engine.v2.events.Event.ID.class);
+
+    static {
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.StreamStart, EventType.STREAM_START);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.StreamEnd, EventType.STREAM_END);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.DocumentStart, EventType.DOCUMENT_START);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.DocumentEnd, EventType.DOCUMENT_END);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.MappingStart, EventType.MAPPING_START);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.MappingEnd, EventType.MAPPING_END);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.SequenceStart, EventType.SEQUENCE_START);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.SequenceEnd, EventType.SEQUENCE_END);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.Scalar, EventType.SCALAR);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.Alias, EventType.ALIAS);
+        EVENT_TYPES.put(org.snakeyaml.engine.v2.events.Event.ID.Comment, EventType.COMMENT);
+    }
+
+    org.snakeyaml.engine.v2.scanner.StreamReader streamReader;
+
+    SnakeYamlEngineParser(YamlParserFactory factory,
+            Iterator<org.snakeyaml.engine.v2.events.Event> yamlEvents,
+            org.snakeyaml.engine.v2.scanner.StreamReader streamReader,
+            Reader yamlReader,
+            Map<String, ?> properties,
+            JsonProvider jsonProvider,
+            StringCache stringCache,
+            ParserBuffers buffers) {
+        super(factory, yamlEvents, yamlReader, properties, jsonProvider, stringCache, buffers);
+        this.streamReader = streamReader;
+    }
+
+    void reset(Iterator<org.snakeyaml.engine.v2.events.Event> yamlEvents, org.snakeyaml.engine.v2.scanner.StreamReader streamReader, Reader yamlReader) {
+        reset(yamlEvents, yamlReader);
+        this.streamReader = streamReader;
+    }
+
+    @Override
+    protected YamlLocation getReaderLocation() {
+        return new YamlLocation(streamReader.getLine() + 1L, streamReader.getColumn() + 1L, streamReader.getIndex());
     }
 
     @Override
@@ -50,8 +89,8 @@ final class SnakeYamlEngineParser extends YamlParser<org.snakeyaml.engine.v2.eve
     }
 
     @Override
-    protected String getEventId(org.snakeyaml.engine.v2.events.Event event) {
-        return event.getEventId().toString();
+    protected EventType getEventType(org.snakeyaml.engine.v2.events.Event event) {
+        return EVENT_TYPES.get(event.getEventId());
     }
 
     @Override
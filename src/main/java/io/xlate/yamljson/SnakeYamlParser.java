@@ -16,13 +16,101 @@
 package io.xlate.yamljson;
 
 import java.io.Reader;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+
+import jakarta.json.spi.JsonProvider;
 
 final class SnakeYamlParser extends YamlParser<org.yaml.snakeyaml.events.Event, org.yaml.snakeyaml.error.Mark> {
 
-    SnakeYamlParser(Iterator<org.yaml.snakeyaml.events.Event> yamlEvents, Reader yamlReader, Map<String, ?> properties) {
-        super(yamlEvents, yamlReader, properties);
+    static final Map<org.yaml.snakeyaml.events.Event.ID, EventType> EVENT_TYPES = new EnumMap<>(org.yaml.snakeyaml.events.Event.ID.class);
+
+    static {
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.StreamStart, EventType.STREAM_START);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.StreamEnd, EventType.STREAM_END);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.DocumentStart, EventType.DOCUMENT_START);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.DocumentEnd, EventType.DOCUMENT_END);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.MappingStart, EventType.MAPPING_START);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.MappingEnd, EventType.MAPPING_END);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.SequenceStart, EventType.SEQUENCE_START);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.SequenceEnd, EventType.SEQUENCE_END);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.Scalar, EventType.SCALAR);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.Alias, EventType.ALIAS);
+        EVENT_TYPES.put(org.yaml.snakeyaml.events.Event.ID.Comment, EventType.COMMENT);
+    }
+
+    /**
+     * Iterates over the events of a snakeyaml parser, equivalent to the
+     * iterable returned by {@link org.yaml.snakeyaml.Yaml#parse(Reader)}.
+     */
+    static final class EventIterator implements Iterator<org.yaml.snakeyaml.events.Event> {
+        private final org.yaml.snakeyaml.parser.Parser parser;
+
+        EventIterator(org.yaml.snakeyaml.parser.Parser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return parser.peekEvent() != null;
+        }
+
+        @Override
+        public org.yaml.snakeyaml.events.Event next() {
+            org.yaml.snakeyaml.events.Event event = parser.getEvent();
+
+            if (event == null) {
+                throw new NoSuchElementException("No more Events found.");
+            }
+
+            return event;
+        }
+    }
+
+    /**
+     * Stream reader producing marks that do not reference the reader's
+     * buffer. snakeyaml requires a mark for every token, but the default
+     * marks retain the buffer window they were created from (for error
+     * snippets) for as long as the event is referenced, e.g. by the parser's
+     * anchors.
+     */
+    static final class UnbufferedMarkStreamReader extends org.yaml.snakeyaml.reader.StreamReader {
+        private static final int[] NO_BUFFER = { 0 };
+
+        UnbufferedMarkStreamReader(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public org.yaml.snakeyaml.error.Mark getMark() {
+            return new org.yaml.snakeyaml.error.Mark("'reader'", getIndex(), getLine(), getColumn(), NO_BUFFER, 0);
+        }
+    }
+
+    org.yaml.snakeyaml.reader.StreamReader streamReader;
+
+    SnakeYamlParser(YamlParserFactory factory,
+            Iterator<org.yaml.snakeyaml.events.Event> yamlEvents,
+            org.yaml.snakeyaml.reader.StreamReader streamReader,
+            Reader yamlReader,
+            Map<String, ?> properties,
+            JsonProvider jsonProvider,
+            StringCache stringCache,
+            ParserBuffers buffers) {
+        super(factory, yamlEvents, yamlReader, properties, jsonProvider, stringCache, buffers);
+        this.streamReader = streamReader;
+    }
+
+    void reset(Iterator<org.yaml.snakeyaml.events.Event> yamlEvents, org.yaml.snakeyaml.reader.StreamReader streamReader, Reader yamlReader) {
+        reset(yamlEvents, yamlReader);
+        this.streamReader = streamReader;
+    }
+
+    @Override
+    protected YamlLocation getReaderLocation() {
+        return new YamlLocation(streamReader.getLine() + 1L, streamReader.getColumn() + 1L, streamReader.getIndex());
     }
 
     @Override
@@ -50,8 +138,8 @@ final class SnakeYamlParser extends YamlParser<org.yaml.snakeyaml.events.Event,
     }
 
     @Override
-    protected String getEventId(org.yaml.snakeyaml.events.Event event) {
-        return event.getEventId().toString();
+    protected EventType getEventType(org.yaml.snakeyaml.events.Event event) {
+        return EVENT_TYPES.get(event.getEventId());
     }
 
     @Override
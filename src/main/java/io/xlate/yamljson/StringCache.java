@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of canonical string instances, shared by the parsers created
+ * by a single factory. Repeated key names (and, optionally, short values) are
+ * replaced by the first instance seen so that the strings retained by parsed
+ * structures are shared and their hash codes are computed once.
+ * <p>
+ * The cache is direct-mapped: each string hashes to exactly one slot and a
+ * string mapping to an occupied slot evicts the previous entry. Lookups
+ * are constant time and the cache never grows beyond its initial size.
+ * <p>
+ * Slots are read and written without locking. Strings are immutable and
+ * safely published, so a racing reader sees either the previous or the new
+ * entry of a slot, and both are correct (if not canonical) results.
+ */
+final class StringCache {
+
+    private final String[] entries;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    StringCache(int size) {
+        int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        this.entries = new String[capacity];
+        this.mask = capacity - 1;
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * Obtain the cached instance equal to the given value, caching the value
+     * if no equal instance is present.
+     *
+     * @param value a string to canonicalize
+     * @return the cached instance equal to value
+     */
+    String canonicalize(String value) {
+        final int hash = value.hashCode();
+        final int slot = (hash ^ (hash >>> 16)) & mask;
+        final String cached = entries[slot];
+
+        if (cached != null && cached.hashCode() == hash && cached.equals(value)) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+
+        if (cached != null) {
+            evictions.increment();
+        }
+
+        entries[slot] = value;
+        return value;
+    }
+
+    Yaml.CacheStatistics statistics() {
+        return new Yaml.CacheStatistics(hits.sum(), misses.sum(), evictions.sum());
+    }
+}
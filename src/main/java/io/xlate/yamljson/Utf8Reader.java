@@ -0,0 +1,389 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Reader of UTF-8 encoded YAML, decoding the bytes of an input stream or
+ * buffer directly into the caller's buffer. Runs of ASCII characters are copied by a
+ * simple loop, and only multi-byte sequences are decoded individually.
+ * <p>
+ * The encoding is detected from the byte order mark at the start of the
+ * input, defaulting to UTF-8. Input with a UTF-16 or UTF-32 byte order mark is
+ * read by the fallback reader of the YAML library, which receives the whole
+ * input including the byte order mark. Malformed input is reported with a
+ * {@link MalformedInputException}, as it is by the readers of the YAML
+ * libraries.
+ * <p>
+ * The bytes of a heap buffer are decoded in place. The bytes of a direct
+ * buffer, such as a memory mapped file, are copied in bulk to a byte array
+ * for decoding.
+ */
+final class Utf8Reader extends Reader {
+
+    static final int BUFFER_SIZE = 32 * 1024;
+
+    /**
+     * Source of the input, either a stream or a buffer. Null when the input
+     * has been read in full, e.g. when decoding a heap buffer in place.
+     */
+    private final InputStream in;
+    private final ByteBuffer source;
+    /**
+     * Reader for input that is not UTF-8, or null when only UTF-8 is accepted.
+     */
+    private final Function<InputStream, Reader> fallback;
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private boolean started;
+    private Reader delegate;
+    /**
+     * Low surrogate of a supplementary character that did not fit in the
+     * caller's buffer, or 0.
+     */
+    private char pendingLowSurrogate;
+
+    Utf8Reader(InputStream in, Function<InputStream, Reader> fallback) {
+        this(in, fallback, new byte[BUFFER_SIZE]);
+    }
+
+    /**
+     * Create a reader of the stream decoding from the given buffer, e.g. a
+     * buffer reused from a previous reader. The buffer must hold at least 4
+     * bytes.
+     */
+    Utf8Reader(InputStream in, Function<InputStream, Reader> fallback, byte[] buffer) {
+        this.in = in;
+        this.source = null;
+        this.fallback = fallback;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Create a reader of the remaining bytes of the buffer. The position of
+     * the buffer is not modified.
+     */
+    Utf8Reader(ByteBuffer source, Function<InputStream, Reader> fallback) {
+        this(source, fallback, null);
+    }
+
+    /**
+     * Create a reader of the remaining bytes of the buffer, copying the bytes
+     * of a direct buffer to the given decode buffer, if not null.
+     */
+    Utf8Reader(ByteBuffer source, Function<InputStream, Reader> fallback, byte[] decodeBuffer) {
+        this.in = null;
+        this.fallback = fallback;
+
+        if (source.hasArray()) {
+            this.source = null;
+            this.buffer = source.array();
+            this.position = source.arrayOffset() + source.position();
+            this.limit = source.arrayOffset() + source.limit();
+            this.endOfInput = true;
+        } else {
+            this.source = source.duplicate();
+            this.buffer = decodeBuffer != null
+                    ? decodeBuffer
+                    : new byte[Math.min(BUFFER_SIZE, Math.max(source.remaining(), 4))];
+        }
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, cbuf.length);
+
+        if (!started) {
+            start();
+        }
+
+        if (delegate != null) {
+            return delegate.read(cbuf, off, len);
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+
+        int count = 0;
+
+        if (pendingLowSurrogate != 0) {
+            cbuf[off] = pendingLowSurrogate;
+            pendingLowSurrogate = 0;
+            count = 1;
+        }
+
+        while (count == 0 || (count < len && position < limit)) {
+            if (position == limit || !isCompleteSequence()) {
+                if (count > 0) {
+                    break;
+                }
+                if (!fill()) {
+                    return -1;
+                }
+            }
+
+            count += decode(cbuf, off + count, len - count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Detect the encoding from the byte order mark, if any.
+     */
+    void start() throws IOException {
+        started = true;
+
+        while (limit - position < 4 && fillBuffer()) {
+            // Read enough bytes for the longest byte order mark
+        }
+
+        if (startsWith(0xEF, 0xBB, 0xBF)) {
+            position += 3;
+        } else if (fallback != null && (startsWith(0xFE, 0xFF) || startsWith(0xFF, 0xFE) || startsWith(0x00, 0x00, 0xFE, 0xFF))) {
+            InputStream head = new ByteArrayInputStream(buffer, position, limit - position);
+
+            if (in != null) {
+                head = new SequenceInputStream(head, in);
+            } else if (source != null) {
+                head = new SequenceInputStream(head, new ByteBufferInputStream(source));
+            }
+
+            delegate = fallback.apply(head);
+        }
+    }
+
+    boolean startsWith(int... bom) {
+        if (limit - position < bom.length) {
+            return false;
+        }
+
+        for (int i = 0; i < bom.length; i++) {
+            if ((buffer[position + i] & 0xFF) != bom[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Read more input, retaining any incomplete sequence at the end of the
+     * buffer.
+     *
+     * @return false at the end of input
+     */
+    boolean fill() throws IOException {
+        final int remaining = limit - position;
+
+        if (endOfInput) {
+            if (remaining > 0) {
+                throw new MalformedInputException(remaining);
+            }
+            return false;
+        }
+
+        if (remaining > 0) {
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+        }
+
+        position = 0;
+        limit = remaining;
+
+        if (!fillBuffer()) {
+            if (remaining > 0) {
+                // Input ends within a multi-byte sequence
+                throw new MalformedInputException(remaining);
+            }
+            return false;
+        }
+
+        return true;
+    }
+
+    boolean fillBuffer() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+
+        final int read;
+
+        if (source != null) {
+            read = Math.min(source.remaining(), buffer.length - limit);
+
+            if (read == 0) {
+                endOfInput = true;
+                return false;
+            }
+
+            source.get(buffer, limit, read);
+        } else {
+            read = in.read(buffer, limit, buffer.length - limit);
+        }
+
+
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+
+        limit += read;
+        return true;
+    }
+
+    /**
+     * @return true when the sequence at the current position is complete in
+     *         the buffer
+     */
+    boolean isCompleteSequence() {
+        return position + sequenceLength(buffer[position]) <= limit;
+    }
+
+    static int sequenceLength(byte lead) {
+        if (lead >= 0) {
+            return 1;
+        }
+
+        final int b = lead & 0xFF;
+
+        if (b >= 0xF0) {
+            return 4;
+        }
+        if (b >= 0xE0) {
+            return 3;
+        }
+        // Invalid leading bytes are reported when decoded
+        return 2;
+    }
+
+    /**
+     * Decode the complete sequences in the buffer into at most {@code len}
+     * characters.
+     *
+     * @return the number of characters decoded
+     */
+    int decode(char[] cbuf, int off, int len) throws IOException {
+        final byte[] bytes = buffer;
+        final int end = off + len;
+        int p = position;
+        int n = off;
+
+        while (n < end && p < limit) {
+            // ASCII run
+            final int stop = p + Math.min(limit - p, end - n);
+
+            while (p < stop && bytes[p] >= 0) {
+                cbuf[n++] = (char) bytes[p++];
+            }
+
+            if (p == stop) {
+                break;
+            }
+
+            final int lead = bytes[p] & 0xFF;
+            final int length = sequenceLength(bytes[p]);
+
+            if (p + length > limit) {
+                break;
+            }
+
+            switch (length) {
+            case 2:
+                cbuf[n++] = decode2(lead, bytes[p + 1]);
+                break;
+            case 3:
+                cbuf[n++] = decode3(lead, bytes[p + 1], bytes[p + 2]);
+                break;
+            default: {
+                final int codePoint = decode4(lead, bytes[p + 1], bytes[p + 2], bytes[p + 3]);
+                cbuf[n++] = Character.highSurrogate(codePoint);
+
+                if (n < end) {
+                    cbuf[n++] = Character.lowSurrogate(codePoint);
+                } else {
+                    pendingLowSurrogate = Character.lowSurrogate(codePoint);
+                }
+                break;
+            }
+            }
+
+            p += length;
+        }
+
+        position = p;
+        return n - off;
+    }
+
+    static char decode2(int lead, byte b1) throws MalformedInputException {
+        if (lead < 0xC2 || !isContinuation(b1)) {
+            throw new MalformedInputException(1);
+        }
+        return (char) (((lead & 0x1F) << 6) | (b1 & 0x3F));
+    }
+
+    static char decode3(int lead, byte b1, byte b2) throws MalformedInputException {
+        final int second = b1 & 0xFF;
+
+        if (!isContinuation(b1)
+                || (lead == 0xE0 && second < 0xA0) // Overlong
+                || (lead == 0xED && second > 0x9F) // Surrogate
+                || !isContinuation(b2)) {
+            throw new MalformedInputException(1);
+        }
+
+        return (char) (((lead & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F));
+    }
+
+    static int decode4(int lead, byte b1, byte b2, byte b3) throws MalformedInputException {
+        final int second = b1 & 0xFF;
+
+        if (lead > 0xF4
+                || !isContinuation(b1)
+                || (lead == 0xF0 && second < 0x90) // Overlong
+                || (lead == 0xF4 && second > 0x8F) // Beyond U+10FFFF
+                || !isContinuation(b2)
+                || !isContinuation(b3)) {
+            throw new MalformedInputException(1);
+        }
+
+        return ((lead & 0x07) << 18) | ((b1 & 0x3F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+    }
+
+    static boolean isContinuation(byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate != null) {
+            delegate.close();
+        } else if (in != null) {
+            in.close();
+        }
+    }
+}
@@ -21,13 +21,19 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import jakarta.json.JsonArray;
 import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonPointer;
 import jakarta.json.JsonReader;
 import jakarta.json.JsonReaderFactory;
+import jakarta.json.JsonValue;
 import jakarta.json.JsonWriter;
 import jakarta.json.JsonWriterFactory;
 import jakarta.json.spi.JsonProvider;
@@ -123,6 +129,36 @@ public final class Yaml {
          */
         public static final String LOAD_MAX_ALIAS_EXPANSION_SIZE = "LOAD_MAX_ALIAS_EXPANSION_SIZE";
 
+        /**
+         * The maximum number of events that may be retained for the anchors of
+         * a single document, so that their aliases may be expanded. Anchors are
+         * released at the end of each document. Parsing a document that
+         * exceeds the limit fails with a
+         * {@link jakarta.json.stream.JsonParsingException
+         * JsonParsingException}. Default is unlimited.
+         *
+         * @see Yaml#anchoredEventCount(JsonParser)
+         * @since 0.2.2
+         */
+        public static final String LOAD_MAX_ANCHORED_EVENTS = PRE + "LOAD_MAX_ANCHORED_EVENTS";
+
+        /**
+         * The maximum depth to which mappings and sequences may be nested.
+         * Parsing a document that exceeds the limit fails with a
+         * {@link jakarta.json.stream.JsonParsingException
+         * JsonParsingException}. Default is {@value #DEFAULT_MAX_NESTING_DEPTH}.
+         *
+         * @since 0.2.2
+         */
+        public static final String LOAD_MAX_NESTING_DEPTH = PRE + "LOAD_MAX_NESTING_DEPTH";
+
+        /**
+         * Default value of {@link #LOAD_MAX_NESTING_DEPTH}.
+         *
+         * @since 0.2.2
+         */
+        public static final int DEFAULT_MAX_NESTING_DEPTH = 1000;
+
         /**
          * Requires snakeyaml-engine, not supported with snakeyaml.
          *
@@ -132,11 +168,33 @@ public final class Yaml {
          * @deprecated use
          *             {@link org.snakeyaml.engine.v2.api.LoadSettingsBuilder#setUseMarks(boolean)
          *             LoadSettingsBuilder#setUseMarks} with
-         *             {@link #LOAD_CONFIG} to configure this option.
+         *             {@link #LOAD_CONFIG} to configure this option. Without
+         *             marks, locations are taken from the current position of
+         *             the input, which may be ahead of the event.
          */
         @Deprecated(since = "0.2", forRemoval = true)
         public static final String LOAD_USE_MARKS = "LOAD_USE_MARKS"; // NOSONAR
 
+        /**
+         * Whether the marks recorded for events retain the input buffer from
+         * which the snippets of the input in error messages are taken. Default
+         * is true.
+         * <p>
+         * When false, the snakeyaml (YAML 1.1) parser records marks that do
+         * not reference its input buffer, so that events retained by the
+         * parser (e.g. those of anchors) do not retain the input read before
+         * them. Error messages then omit the snippet of the input. Marks are
+         * recorded either way, so the locations reported by
+         * {@link JsonParser#getLocation()} and parsing exceptions are
+         * unaffected, as is parsing throughput.
+         * <p>
+         * Not supported with snakeyaml-engine (YAML 1.2), whose marks always
+         * retain the input buffer.
+         *
+         * @since 0.2.2
+         */
+        public static final String LOAD_MARK_SNIPPETS = PRE + "LOAD_MARK_SNIPPETS";
+
         /**
          * Set to true if the document start must be explicitly indicated by
          * adding {@code ---} at the beginning of the document.
@@ -235,6 +293,131 @@ public final class Yaml {
          * @since 0.2
          */
         public static final String DUMP_WRITE_PLAIN_BIGDECIMAL = PRE + "DUMP_WRITE_PLAIN_BIGDECIMAL";
+
+        /**
+         * Used to pass a {@linkplain JsonProvider JsonProvider} instance that
+         * parsers will use to create the {@link jakarta.json.JsonValue
+         * JsonValue}s returned by methods such as
+         * {@link JsonParser#getValue()}.
+         * <p>
+         * When not set, parsers create this library's own compact, immutable
+         * values, built in a single pass without intermediate builders and
+         * without requiring a JSON provider implementation to be present.
+         *
+         * @since 0.2.2
+         */
+        public static final String JSON_PROVIDER = PRE + "JSON_PROVIDER";
+
+        /**
+         * The number of entries in a cache of key names shared by the parsers
+         * created by a parser (or reader) factory. Repeated key names are
+         * replaced by a single cached instance, reducing the memory retained
+         * by parsed structures. The size is rounded up to a power of two; a
+         * key name evicts the entry (if any) that occupies its slot. Default
+         * is 0, disabling the cache.
+         *
+         * @see #LOAD_STRING_CACHE_MAX_VALUE_LENGTH
+         * @see Yaml#stringCacheStatistics(JsonParserFactory)
+         * @since 0.2.2
+         */
+        public static final String LOAD_STRING_CACHE_SIZE = PRE + "LOAD_STRING_CACHE_SIZE";
+
+        /**
+         * The maximum length of a string value to be held in the cache enabled
+         * by {@link #LOAD_STRING_CACHE_SIZE}, in addition to key names. Useful
+         * for enumeration-like values that are repeated throughout a
+         * document. Default is 0, caching only key names.
+         *
+         * @since 0.2.2
+         */
+        public static final String LOAD_STRING_CACHE_MAX_VALUE_LENGTH = PRE + "LOAD_STRING_CACHE_MAX_VALUE_LENGTH";
+
+        /**
+         * The number of idle sets of parser scratch buffers (the buffer used
+         * to decode UTF-8 input, event queues and the stacks used to build
+         * values) retained for reuse by the parsers created by a parser (or
+         * reader) factory. A parser borrows a set when created and returns it
+         * when closed, reducing the allocation per parser when many small
+         * inputs are parsed. A parser must not be used once closed. Default
+         * is 0, disabling the pool.
+         *
+         * @see #LOAD_BUFFER_POOL_MAX_CAPACITY
+         * @see Yaml#bufferPoolStatistics(JsonParserFactory)
+         * @since 0.2.2
+         */
+        public static final String LOAD_BUFFER_POOL_SIZE = PRE + "LOAD_BUFFER_POOL_SIZE";
+
+        /**
+         * The maximum number of elements held by any structure of a set of
+         * buffers returned to the pool enabled by
+         * {@link #LOAD_BUFFER_POOL_SIZE}. A set that grew beyond this capacity
+         * while parsing a large input is discarded rather than retained.
+         * Default is {@value #DEFAULT_BUFFER_POOL_MAX_CAPACITY}.
+         *
+         * @since 0.2.2
+         */
+        public static final String LOAD_BUFFER_POOL_MAX_CAPACITY = PRE + "LOAD_BUFFER_POOL_MAX_CAPACITY";
+
+        /**
+         * Default value of {@link #LOAD_BUFFER_POOL_MAX_CAPACITY}.
+         *
+         * @since 0.2.2
+         */
+        public static final int DEFAULT_BUFFER_POOL_MAX_CAPACITY = 1 << 16;
+    }
+
+    /**
+     * Snapshot of the counters of a cache used by a factory.
+     *
+     * @see Yaml#stringCacheStatistics(JsonParserFactory)
+     * @see Yaml#bufferPoolStatistics(JsonParserFactory)
+     * @since 0.2.2
+     */
+    public static final class CacheStatistics {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        CacheStatistics(long hits, long misses, long evictions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        /**
+         * @return the number of lookups satisfied by the cache
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * @return the number of lookups not satisfied by the cache
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return the number of entries removed to make room for another
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return the ratio of hits to all lookups, or 0 when no lookups have
+         *         been made
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (double) hits / lookups : 0d;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheStatistics [hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+        }
     }
 
     private static final YamlProvider PROVIDER = new YamlProvider();
@@ -254,6 +437,160 @@ public final class Yaml {
         return PROVIDER;
     }
 
+    /**
+     * Obtain the number of events currently retained by a YAML parser for
+     * the anchors of the document being parsed. Intended for diagnostics.
+     *
+     * @param parser
+     *            a parser created by this API
+     * @return the number of retained anchor events
+     * @throws IllegalArgumentException
+     *             if the parser was not created by this API
+     *
+     * @see Settings#LOAD_MAX_ANCHORED_EVENTS
+     * @since 0.2.2
+     */
+    public static long anchoredEventCount(JsonParser parser) {
+        return yamlParser(parser).anchoredEvents.size();
+    }
+
+    /**
+     * Re-target a YAML parser at a new character stream, allowing a single
+     * parser to read many inputs in turn, e.g. one parser per thread. The
+     * current input of the parser is closed and all of its state is
+     * discarded, including anchors, the depth of the open structures and any
+     * merge keys; the structures allocated while reading previous inputs are
+     * retained. On return, the parser is positioned before the first event of
+     * the new input, as if it had been created by its factory for the input.
+     * <p>
+     * The reader, scanner and event parser of the underlying YAML library
+     * cannot be re-targeted and are created for each input. A reset saves the
+     * allocation of the parser's own structures (its event queue, stacks and
+     * UTF-8 decode buffer) without a buffer pool, see
+     * {@link Settings#LOAD_BUFFER_POOL_SIZE}. With a buffer pool configured,
+     * creating a new parser for each input costs about the same.
+     * <p>
+     * A parser that has been closed cannot be reset.
+     *
+     * @param parser
+     *            a parser created by this API
+     * @param reader
+     *            a reader from which the YAML is to be read
+     * @return the parser
+     * @throws IllegalArgumentException
+     *             if the parser was not created by this API
+     * @throws IllegalStateException
+     *             if the parser has been closed
+     * @throws JsonException
+     *             if an i/o error occurs closing the current input
+     *
+     * @since 0.2.2
+     */
+    public static JsonParser resetParser(JsonParser parser, Reader reader) {
+        YamlParser<?, ?> yamlParser = yamlParser(parser);
+        yamlParser.factory.resetParser(yamlParser, reader);
+        return yamlParser;
+    }
+
+    /**
+     * Re-target a YAML parser at a new byte stream. The character encoding of
+     * the stream is determined as for
+     * {@link JsonParserFactory#createParser(InputStream)}.
+     *
+     * @param parser
+     *            a parser created by this API
+     * @param in
+     *            i/o stream from which the YAML is to be read
+     * @return the parser
+     * @throws IllegalArgumentException
+     *             if the parser was not created by this API
+     * @throws IllegalStateException
+     *             if the parser has been closed
+     * @throws JsonException
+     *             if an i/o error occurs closing the current input
+     *
+     * @see #resetParser(JsonParser, Reader)
+     * @since 0.2.2
+     */
+    public static JsonParser resetParser(JsonParser parser, InputStream in) {
+        YamlParser<?, ?> yamlParser = yamlParser(parser);
+        yamlParser.factory.resetParser(yamlParser, in);
+        return yamlParser;
+    }
+
+    /**
+     * Obtain the counters of the string cache shared by the parsers of a
+     * factory, enabled using {@link Settings#LOAD_STRING_CACHE_SIZE}. The
+     * counters are all zero when the cache is disabled.
+     *
+     * @param factory
+     *            a parser factory created by this API
+     * @return a snapshot of the cache's counters
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @since 0.2.2
+     */
+    public static CacheStatistics stringCacheStatistics(JsonParserFactory factory) {
+        return yamlParserFactory(factory).stringCacheStatistics();
+    }
+
+    /**
+     * Obtain the counters of the string cache shared by the readers of a
+     * factory, enabled using {@link Settings#LOAD_STRING_CACHE_SIZE}. The
+     * counters are all zero when the cache is disabled.
+     *
+     * @param factory
+     *            a reader factory created by this API
+     * @return a snapshot of the cache's counters
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @since 0.2.2
+     */
+    public static CacheStatistics stringCacheStatistics(JsonReaderFactory factory) {
+        return yamlReaderFactory(factory).parserFactory.stringCacheStatistics();
+    }
+
+    /**
+     * Obtain the counters of the pool of scratch buffers shared by the
+     * parsers of a factory, enabled using {@link Settings#LOAD_BUFFER_POOL_SIZE}.
+     * Hits count the parsers created with a pooled set of buffers, misses
+     * those for which a new set was allocated, and evictions the sets
+     * discarded when returned to a full pool or having grown beyond
+     * {@link Settings#LOAD_BUFFER_POOL_MAX_CAPACITY}. The counters are all
+     * zero when the pool is disabled.
+     *
+     * @param factory
+     *            a parser factory created by this API
+     * @return a snapshot of the pool's counters
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @since 0.2.2
+     */
+    public static CacheStatistics bufferPoolStatistics(JsonParserFactory factory) {
+        return yamlParserFactory(factory).bufferPoolStatistics();
+    }
+
+    /**
+     * Obtain the counters of the pool of scratch buffers shared by the
+     * readers of a factory, enabled using {@link Settings#LOAD_BUFFER_POOL_SIZE}.
+     * The counters are all zero when the pool is disabled.
+     *
+     * @param factory
+     *            a reader factory created by this API
+     * @return a snapshot of the pool's counters
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @see #bufferPoolStatistics(JsonParserFactory)
+     * @since 0.2.2
+     */
+    public static CacheStatistics bufferPoolStatistics(JsonReaderFactory factory) {
+        return yamlReaderFactory(factory).parserFactory.bufferPoolStatistics();
+    }
+
     /**
      * Creates a YAML parser from a character stream.
      *
@@ -286,6 +623,82 @@ public final class Yaml {
         return provider().createParser(in);
     }
 
+    /**
+     * Creates a YAML parser from a file. Files of 1 MiB or more are mapped
+     * into memory and decoded directly from the mapped buffer; smaller files
+     * are read in full when the parser is created. The character encoding of
+     * the file is determined as described for
+     * {@link #createParser(InputStream)}.
+     *
+     * @param path
+     *            path of a YAML file
+     * @return a YAML parser
+     * @throws JsonException
+     *             if the file cannot be read
+     *
+     * @see #createParser(JsonParserFactory, Path)
+     * @since 0.2.2
+     */
+    public static JsonParser createParser(Path path) {
+        return PROVIDER.defaultParserFactory().createYamlParser(path);
+    }
+
+    /**
+     * Creates a YAML parser from the remaining bytes of a buffer, such as a
+     * memory mapped file. The position of the buffer is not modified. The
+     * character encoding is determined as described for
+     * {@link #createParser(InputStream)}.
+     *
+     * @param yaml
+     *            a buffer containing YAML
+     * @return a YAML parser
+     *
+     * @see #createParser(JsonParserFactory, ByteBuffer)
+     * @since 0.2.2
+     */
+    public static JsonParser createParser(ByteBuffer yaml) {
+        return PROVIDER.defaultParserFactory().createYamlParser(yaml);
+    }
+
+    /**
+     * Creates a YAML parser from a file, using the given parser factory.
+     *
+     * @param factory
+     *            a parser factory created by this API
+     * @param path
+     *            path of a YAML file
+     * @return a YAML parser
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     * @throws JsonException
+     *             if the file cannot be read
+     *
+     * @see #createParser(Path)
+     * @since 0.2.2
+     */
+    public static JsonParser createParser(JsonParserFactory factory, Path path) {
+        return yamlParserFactory(factory).createYamlParser(path);
+    }
+
+    /**
+     * Creates a YAML parser from the remaining bytes of a buffer, using the
+     * given parser factory.
+     *
+     * @param factory
+     *            a parser factory created by this API
+     * @param yaml
+     *            a buffer containing YAML
+     * @return a YAML parser
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @see #createParser(ByteBuffer)
+     * @since 0.2.2
+     */
+    public static JsonParser createParser(JsonParserFactory factory, ByteBuffer yaml) {
+        return yamlParserFactory(factory).createYamlParser(yaml);
+    }
+
     /**
      * Creates a YAML generator for writing YAML to a character stream.
      *
@@ -407,6 +820,78 @@ public final class Yaml {
         return provider().createReader(in);
     }
 
+    /**
+     * Creates a YAML reader from a file, read as described for
+     * {@link #createParser(Path)}.
+     *
+     * @param path
+     *            path of a YAML file
+     * @return a YAML reader
+     * @throws JsonException
+     *             if the file cannot be read
+     *
+     * @see #createReader(JsonReaderFactory, Path)
+     * @since 0.2.2
+     */
+    public static JsonReader createReader(Path path) {
+        return PROVIDER.defaultReaderFactory().createReader(path);
+    }
+
+    /**
+     * Creates a YAML reader from the remaining bytes of a buffer, such as a
+     * memory mapped file. The position of the buffer is not modified.
+     *
+     * @param yaml
+     *            a buffer containing YAML
+     * @return a YAML reader
+     *
+     * @see #createReader(JsonReaderFactory, ByteBuffer)
+     * @since 0.2.2
+     */
+    public static JsonReader createReader(ByteBuffer yaml) {
+        return PROVIDER.defaultReaderFactory().createReader(yaml);
+    }
+
+    /**
+     * Creates a YAML reader from a file, configured by the given reader
+     * factory.
+     *
+     * @param factory
+     *            a reader factory created by this API
+     * @param path
+     *            path of a YAML file
+     * @return a YAML reader
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     * @throws JsonException
+     *             if the file cannot be read
+     *
+     * @see #createReader(Path)
+     * @since 0.2.2
+     */
+    public static JsonReader createReader(JsonReaderFactory factory, Path path) {
+        return yamlReaderFactory(factory).createReader(path);
+    }
+
+    /**
+     * Creates a YAML reader from the remaining bytes of a buffer, configured
+     * by the given reader factory.
+     *
+     * @param factory
+     *            a reader factory created by this API
+     * @param yaml
+     *            a buffer containing YAML
+     * @return a YAML reader
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @see #createReader(ByteBuffer)
+     * @since 0.2.2
+     */
+    public static JsonReader createReader(JsonReaderFactory factory, ByteBuffer yaml) {
+        return yamlReaderFactory(factory).createReader(yaml);
+    }
+
     /**
      * Creates a reader factory for creating {@link JsonReader} objects (for
      * reading YAML). The factory is configured with the specified map of
@@ -425,6 +910,426 @@ public final class Yaml {
         return provider().createReaderFactory(config);
     }
 
+    /**
+     * Creates a reader of the documents of a YAML character stream, read one
+     * at a time.
+     *
+     * @param reader
+     *            a reader from which the YAML stream is to be read
+     * @return a YAML document reader
+     *
+     * @since 0.2.2
+     */
+    public static YamlDocumentReader createDocumentReader(Reader reader) {
+        return PROVIDER.createDocumentReader(reader);
+    }
+
+    /**
+     * Creates a reader of the documents of a YAML byte stream, read one at a
+     * time. The character encoding of the stream is determined as described
+     * for {@link #createReader(InputStream)}.
+     *
+     * @param in
+     *            a byte stream from which the YAML stream is to be read
+     * @return a YAML document reader
+     *
+     * @since 0.2.2
+     */
+    public static YamlDocumentReader createDocumentReader(InputStream in) {
+        return PROVIDER.createDocumentReader(in);
+    }
+
+    /**
+     * Creates a reader of the documents of a YAML character stream, read one
+     * at a time, configured by the given reader factory.
+     *
+     * @param factory
+     *            a reader factory created by this API
+     * @param reader
+     *            a reader from which the YAML stream is to be read
+     * @return a YAML document reader
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @see #createReaderFactory(Map)
+     * @since 0.2.2
+     */
+    public static YamlDocumentReader createDocumentReader(JsonReaderFactory factory, Reader reader) {
+        return yamlReaderFactory(factory).createDocumentReader(reader);
+    }
+
+    /**
+     * Creates a reader of the documents of a YAML byte stream, read one at a
+     * time, configured by the given reader factory.
+     *
+     * @param factory
+     *            a reader factory created by this API
+     * @param in
+     *            a byte stream from which the YAML stream is to be read
+     * @return a YAML document reader
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @see #createReaderFactory(Map)
+     * @since 0.2.2
+     */
+    public static YamlDocumentReader createDocumentReader(JsonReaderFactory factory, InputStream in) {
+        return yamlReaderFactory(factory).createDocumentReader(in);
+    }
+
+    /**
+     * Creates a stream of the documents of a YAML byte array. The stream may
+     * be made {@linkplain Stream#parallel() parallel}, in which case the input
+     * is divided at document start markers ({@code ---}) and the parts are
+     * parsed concurrently. Documents are encountered in the order they appear
+     * in the input.
+     *
+     * @param yaml
+     *            a YAML stream of one or more documents
+     * @return a stream of the documents' root values
+     *
+     * @see #streamDocuments(JsonReaderFactory, ByteBuffer)
+     * @since 0.2.2
+     */
+    public static Stream<JsonValue> streamDocuments(byte[] yaml) {
+        return streamDocuments(ByteBuffer.wrap(yaml));
+    }
+
+    /**
+     * Creates a stream of the documents of a YAML file. Files of 1 MiB or more
+     * are mapped into memory, smaller files are read in full.
+     *
+     * @param path
+     *            path of a file containing one or more YAML documents
+     * @return a stream of the documents' root values
+     * @throws JsonException
+     *             if the file cannot be read
+     *
+     * @see #streamDocuments(JsonReaderFactory, ByteBuffer)
+     * @since 0.2.2
+     */
+    public static Stream<JsonValue> streamDocuments(Path path) {
+        return PROVIDER.defaultReaderFactory().streamDocuments(path);
+    }
+
+    /**
+     * Creates a stream of the documents held in the remaining bytes of a
+     * buffer, such as a memory mapped file. The position of the buffer is
+     * not modified.
+     *
+     * @param yaml
+     *            a buffer containing one or more YAML documents
+     * @return a stream of the documents' root values
+     *
+     * @see #streamDocuments(JsonReaderFactory, ByteBuffer)
+     * @since 0.2.2
+     */
+    public static Stream<JsonValue> streamDocuments(ByteBuffer yaml) {
+        return PROVIDER.defaultReaderFactory().streamDocuments(yaml);
+    }
+
+    /**
+     * Creates a stream of the documents of a YAML byte array, configured by
+     * the given reader factory.
+     *
+     * @param factory
+     *            a reader factory created by this API
+     * @param yaml
+     *            a YAML stream of one or more documents
+     * @return a stream of the documents' root values
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @see #streamDocuments(JsonReaderFactory, ByteBuffer)
+     * @since 0.2.2
+     */
+    public static Stream<JsonValue> streamDocuments(JsonReaderFactory factory, byte[] yaml) {
+        return streamDocuments(factory, ByteBuffer.wrap(yaml));
+    }
+
+    /**
+     * Creates a stream of the documents of a YAML file, configured by the
+     * given reader factory. The file is read as described for
+     * {@link #streamDocuments(Path)}.
+     *
+     * @param factory
+     *            a reader factory created by this API
+     * @param path
+     *            path of a file containing one or more YAML documents
+     * @return a stream of the documents' root values
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     * @throws JsonException
+     *             if the file cannot be read
+     *
+     * @see #streamDocuments(JsonReaderFactory, ByteBuffer)
+     * @since 0.2.2
+     */
+    public static Stream<JsonValue> streamDocuments(JsonReaderFactory factory, Path path) {
+        return yamlReaderFactory(factory).streamDocuments(path);
+    }
+
+    /**
+     * Creates a stream of the documents held in the remaining bytes of a
+     * buffer, configured by the given reader factory.
+     * <p>
+     * The stream may be made {@linkplain Stream#parallel() parallel}, in which
+     * case the input is divided at document start markers ({@code ---} at the
+     * start of a line) and each part is parsed by its own parser created by
+     * the factory. Documents are encountered in the order they appear in the
+     * input. Input encoded as UTF-16 or UTF-32 is parsed sequentially. Error
+     * locations in parts other than the first are relative to the start of
+     * the part.
+     * <p>
+     * The parser of each part is closed once its documents are exhausted or
+     * one of them is not valid. Parts left unfinished by a short-circuiting
+     * operation (e.g. {@link Stream#findFirst()}) are closed when the stream
+     * is closed, so such a stream should be used in a try-with-resources
+     * statement.
+     *
+     * @param factory
+     *            a reader factory created by this API
+     * @param yaml
+     *            a buffer containing one or more YAML documents
+     * @return a stream of the documents' root values
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @since 0.2.2
+     */
+    public static Stream<JsonValue> streamDocuments(JsonReaderFactory factory, ByteBuffer yaml) {
+        return yamlReaderFactory(factory).streamDocuments(yaml);
+    }
+
+    /**
+     * Reads the value referenced by a JSON Pointer in the first document of a
+     * YAML character stream. Only the referenced value is built: the entries
+     * not on the path to the value are skipped, and reading stops once the
+     * value is complete. As when the document is read in full, an entry given
+     * explicitly in a mapping takes precedence over an entry with the same key
+     * merged into it by a merge key ({@code <<}), so a mapping on the path is
+     * read to its end only when the value is found within a merged entry. The
+     * reader is closed before returning.
+     *
+     * @param reader
+     *            a reader from which YAML is to be read
+     * @param pointer
+     *            a JSON Pointer (RFC 6901) string, e.g.
+     *            {@code /spec/template/spec/containers}
+     * @return the referenced value
+     * @throws JsonException
+     *             if the pointer is not valid or the referenced value does not
+     *             exist
+     * @throws jakarta.json.stream.JsonParsingException
+     *             if the YAML read to resolve the value is not valid
+     *
+     * @see #readValue(JsonParserFactory, Reader, String)
+     * @since 0.2.2
+     */
+    public static JsonValue readValue(Reader reader, String pointer) {
+        return PROVIDER.defaultParserFactory().readValue(reader, new YamlPointer(pointer));
+    }
+
+    /**
+     * Reads the value referenced by a JSON Pointer in the first document of a
+     * YAML character stream. The pointer is given by the string returned by
+     * its {@link JsonPointer#toString() toString} method.
+     *
+     * @param reader
+     *            a reader from which YAML is to be read
+     * @param pointer
+     *            a JSON Pointer
+     * @return the referenced value
+     * @throws JsonException
+     *             if the referenced value does not exist
+     *
+     * @see #readValue(Reader, String)
+     * @since 0.2.2
+     */
+    public static JsonValue readValue(Reader reader, JsonPointer pointer) {
+        return readValue(reader, pointer.toString());
+    }
+
+    /**
+     * Reads the value referenced by a JSON Pointer in the first document of a
+     * YAML character stream, using a parser created by the given factory.
+     *
+     * @param factory
+     *            a parser factory created by this API
+     * @param reader
+     *            a reader from which YAML is to be read
+     * @param pointer
+     *            a JSON Pointer (RFC 6901) string
+     * @return the referenced value
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     * @throws JsonException
+     *             if the pointer is not valid or the referenced value does not
+     *             exist
+     *
+     * @see #readValue(Reader, String)
+     * @since 0.2.2
+     */
+    public static JsonValue readValue(JsonParserFactory factory, Reader reader, String pointer) {
+        return yamlParserFactory(factory).readValue(reader, new YamlPointer(pointer));
+    }
+
+    /**
+     * Reads the value referenced by a JSON Pointer in the first document of a
+     * YAML character stream, using a parser created by the given factory. The
+     * pointer is given by the string returned by its
+     * {@link JsonPointer#toString() toString} method.
+     *
+     * @param factory
+     *            a parser factory created by this API
+     * @param reader
+     *            a reader from which YAML is to be read
+     * @param pointer
+     *            a JSON Pointer
+     * @return the referenced value
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     * @throws JsonException
+     *             if the referenced value does not exist
+     *
+     * @see #readValue(Reader, String)
+     * @since 0.2.2
+     */
+    public static JsonValue readValue(JsonParserFactory factory, Reader reader, JsonPointer pointer) {
+        return readValue(factory, reader, pointer.toString());
+    }
+
+    /**
+     * Compiles a path query, using the subset of the JSONPath syntax described
+     * by {@link YamlQuery}.
+     *
+     * @param expression
+     *            the query, e.g. {@code $.items[*].metadata.name}
+     * @return the compiled query
+     * @throws JsonException
+     *             if the expression is not a valid query
+     *
+     * @see #query(Reader, YamlQuery)
+     * @since 0.2.2
+     */
+    public static YamlQuery createQuery(String expression) {
+        return new YamlQuery(expression);
+    }
+
+    /**
+     * Returns a stream of the values matched by a query in the documents of a
+     * YAML character stream. Each value is read only when the consumer of the
+     * stream asks for it, and the structures that cannot contain a match are
+     * skipped without being built. Closing the stream closes the reader.
+     * <p>
+     * As when a document is read in full, an entry given explicitly in a
+     * mapping takes precedence over an entry with the same key merged into it
+     * by a merge key ({@code <<}). A match within an explicit entry is given
+     * as soon as it is found, while a match within a merged entry is given only
+     * once the mapping ends (if the mapping does not give the key explicitly),
+     * so the input is read as far as the end of that mapping.
+     *
+     * @param reader
+     *            a reader from which YAML is to be read
+     * @param query
+     *            the query to evaluate
+     * @return a sequential, ordered stream of the values matched
+     *
+     * @see #query(JsonParserFactory, Reader, YamlQuery)
+     * @since 0.2.2
+     */
+    public static Stream<JsonValue> query(Reader reader, YamlQuery query) {
+        return PROVIDER.defaultParserFactory().query(reader, query);
+    }
+
+    /**
+     * Returns a stream of the values matched by a query in the documents of a
+     * YAML character stream, using a parser created by the given factory.
+     *
+     * @param factory
+     *            a parser factory created by this API
+     * @param reader
+     *            a reader from which YAML is to be read
+     * @param query
+     *            the query to evaluate
+     * @return a sequential, ordered stream of the values matched
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @see #query(Reader, YamlQuery)
+     * @since 0.2.2
+     */
+    public static Stream<JsonValue> query(JsonParserFactory factory, Reader reader, YamlQuery query) {
+        return yamlParserFactory(factory).query(reader, query);
+    }
+
+    /**
+     * Evaluates several queries in a single pass over the documents of a YAML
+     * character stream. Each value matched is given to the action, along with
+     * the query it matches, as soon as the match is final (see
+     * {@link #query(Reader, YamlQuery)}). A value matched by more
+     * than one query is given once for each query. The reader is closed before
+     * returning.
+     *
+     * @param reader
+     *            a reader from which YAML is to be read
+     * @param action
+     *            the action to perform for each value matched
+     * @param queries
+     *            the queries to evaluate
+     * @throws jakarta.json.stream.JsonParsingException
+     *             if the YAML is not valid
+     *
+     * @see #query(JsonParserFactory, Reader, BiConsumer, YamlQuery...)
+     * @since 0.2.2
+     */
+    public static void query(Reader reader, BiConsumer<YamlQuery, JsonValue> action, YamlQuery... queries) {
+        PROVIDER.defaultParserFactory().query(reader, queries, action);
+    }
+
+    /**
+     * Evaluates several queries in a single pass over the documents of a YAML
+     * character stream, using a parser created by the given factory.
+     *
+     * @param factory
+     *            a parser factory created by this API
+     * @param reader
+     *            a reader from which YAML is to be read
+     * @param action
+     *            the action to perform for each value matched
+     * @param queries
+     *            the queries to evaluate
+     * @throws IllegalArgumentException
+     *             if the factory was not created by this API
+     *
+     * @see #query(Reader, BiConsumer, YamlQuery...)
+     * @since 0.2.2
+     */
+    public static void query(JsonParserFactory factory, Reader reader, BiConsumer<YamlQuery, JsonValue> action, YamlQuery... queries) {
+        yamlParserFactory(factory).query(reader, queries, action);
+    }
+
+    private static YamlParser<?, ?> yamlParser(JsonParser parser) {
+        if (parser instanceof YamlParser) {
+            return (YamlParser<?, ?>) parser;
+        }
+        throw new IllegalArgumentException("Not a YAML parser: " + parser);
+    }
+
+    private static YamlParserFactory yamlParserFactory(JsonParserFactory factory) {
+        if (factory instanceof YamlParserFactory) {
+            return (YamlParserFactory) factory;
+        }
+        throw new IllegalArgumentException("Not a YAML parser factory: " + factory);
+    }
+
+    private static YamlReaderFactory yamlReaderFactory(JsonReaderFactory factory) {
+        if (factory instanceof YamlReaderFactory) {
+            return (YamlReaderFactory) factory;
+        }
+        throw new IllegalArgumentException("Not a YAML reader factory: " + factory);
+    }
+
     /**
      * Creates a writer factory for creating {@link JsonWriter} objects (for
      * writing YAML). The factory is configured with the specified map of
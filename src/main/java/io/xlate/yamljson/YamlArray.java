@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+/**
+ * Immutable {@link JsonArray} storing its elements in an exact-size array.
+ */
+final class YamlArray extends AbstractList<JsonValue> implements JsonArray, RandomAccess {
+
+    static final YamlArray EMPTY = new YamlArray(new JsonValue[0]);
+
+    private final JsonValue[] values;
+
+    private YamlArray(JsonValue[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Create an array from a range of values.
+     *
+     * @param values the source of the elements
+     * @param from   index of the first element (inclusive)
+     * @param to     index following the last element
+     * @return a new array, or the empty array when the range is empty
+     */
+    static YamlArray of(JsonValue[] values, int from, int to) {
+        return from == to ? EMPTY : new YamlArray(Arrays.copyOfRange(values, from, to));
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.ARRAY;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public JsonValue get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public JsonObject getJsonObject(int index) {
+        return (JsonObject) values[index];
+    }
+
+    @Override
+    public JsonArray getJsonArray(int index) {
+        return (JsonArray) values[index];
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(int index) {
+        return (JsonNumber) values[index];
+    }
+
+    @Override
+    public JsonString getJsonString(int index) {
+        return (JsonString) values[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends JsonValue> List<T> getValuesAs(Class<T> clazz) {
+        return (List<T>) this;
+    }
+
+    @Override
+    public String getString(int index) {
+        return getJsonString(index).getString();
+    }
+
+    @Override
+    public String getString(int index, String defaultValue) {
+        final JsonValue value = index >= 0 && index < values.length ? values[index] : null;
+        return value instanceof JsonString ? ((JsonString) value).getString() : defaultValue;
+    }
+
+    @Override
+    public int getInt(int index) {
+        return getJsonNumber(index).intValue();
+    }
+
+    @Override
+    public int getInt(int index, int defaultValue) {
+        final JsonValue value = index >= 0 && index < values.length ? values[index] : null;
+        return value instanceof JsonNumber ? ((JsonNumber) value).intValue() : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        final JsonValue value = values[index];
+
+        if (value == JsonValue.TRUE) {
+            return true;
+        }
+        if (value == JsonValue.FALSE) {
+            return false;
+        }
+        throw new ClassCastException("Not a boolean: " + value.getValueType());
+    }
+
+    @Override
+    public boolean getBoolean(int index, boolean defaultValue) {
+        final JsonValue value = index >= 0 && index < values.length ? values[index] : null;
+
+        if (value == JsonValue.TRUE) {
+            return true;
+        }
+        if (value == JsonValue.FALSE) {
+            return false;
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return values[index] == JsonValue.NULL;
+    }
+
+    @Override
+    public String toString() {
+        return YamlValues.toString(this);
+    }
+}
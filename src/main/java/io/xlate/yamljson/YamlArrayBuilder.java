@@ -0,0 +1,278 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
+
+/**
+ * Builder of {@link YamlArray}s.
+ */
+final class YamlArrayBuilder implements JsonArrayBuilder {
+
+    private JsonValue[] values = new JsonValue[YamlObject.INDEX_THRESHOLD];
+    private int size;
+
+    YamlArrayBuilder() {
+    }
+
+    YamlArrayBuilder(JsonArray array) {
+        array.forEach(this::add);
+    }
+
+    YamlArrayBuilder(Collection<?> collection) {
+        collection.forEach(value -> add(YamlValues.toJsonValue(value)));
+    }
+
+    static JsonValue valueOf(boolean value) {
+        return value ? JsonValue.TRUE : JsonValue.FALSE;
+    }
+
+    static JsonValue valueOf(BigInteger value) {
+        return YamlValues.toJsonValue(Objects.requireNonNull(value, "value"));
+    }
+
+    static JsonValue valueOf(BigDecimal value) {
+        return YamlNumber.of(Objects.requireNonNull(value, "value"));
+    }
+
+    static JsonValue valueOf(JsonObjectBuilder builder) {
+        return Objects.requireNonNull(builder, "builder").build();
+    }
+
+    static JsonValue valueOf(JsonArrayBuilder builder) {
+        return Objects.requireNonNull(builder, "builder").build();
+    }
+
+    @Override
+    public JsonArrayBuilder add(JsonValue value) {
+        return add(size, value);
+    }
+
+    @Override
+    public JsonArrayBuilder add(String value) {
+        return add(new YamlString(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(BigDecimal value) {
+        return add(valueOf(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(BigInteger value) {
+        return add(valueOf(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(int value) {
+        return add(YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(long value) {
+        return add(YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(double value) {
+        return add(YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(boolean value) {
+        return add(valueOf(value));
+    }
+
+    @Override
+    public JsonArrayBuilder addNull() {
+        return add(JsonValue.NULL);
+    }
+
+    @Override
+    public JsonArrayBuilder add(JsonObjectBuilder builder) {
+        return add(valueOf(builder));
+    }
+
+    @Override
+    public JsonArrayBuilder add(JsonArrayBuilder builder) {
+        return add(valueOf(builder));
+    }
+
+    @Override
+    public JsonArrayBuilder addAll(JsonArrayBuilder builder) {
+        Objects.requireNonNull(builder, "builder");
+
+        if (builder instanceof YamlArrayBuilder) {
+            YamlArrayBuilder other = (YamlArrayBuilder) builder;
+
+            for (int i = 0, m = other.size; i < m; i++) {
+                add(other.values[i]);
+            }
+        } else {
+            builder.build().forEach(this::add);
+        }
+
+        return this;
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, JsonValue value) {
+        Objects.requireNonNull(value, "value");
+
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        return this;
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, String value) {
+        return add(index, new YamlString(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, BigDecimal value) {
+        return add(index, valueOf(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, BigInteger value) {
+        return add(index, valueOf(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, int value) {
+        return add(index, YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, long value) {
+        return add(index, YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, double value) {
+        return add(index, YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, boolean value) {
+        return add(index, valueOf(value));
+    }
+
+    @Override
+    public JsonArrayBuilder addNull(int index) {
+        return add(index, JsonValue.NULL);
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, JsonObjectBuilder builder) {
+        return add(index, valueOf(builder));
+    }
+
+    @Override
+    public JsonArrayBuilder add(int index, JsonArrayBuilder builder) {
+        return add(index, valueOf(builder));
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, JsonValue value) {
+        Objects.requireNonNull(value, "value");
+        Objects.checkIndex(index, size);
+        values[index] = value;
+        return this;
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, String value) {
+        return set(index, new YamlString(value));
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, BigDecimal value) {
+        return set(index, valueOf(value));
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, BigInteger value) {
+        return set(index, valueOf(value));
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, int value) {
+        return set(index, YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, long value) {
+        return set(index, YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, double value) {
+        return set(index, YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, boolean value) {
+        return set(index, valueOf(value));
+    }
+
+    @Override
+    public JsonArrayBuilder setNull(int index) {
+        return set(index, JsonValue.NULL);
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, JsonObjectBuilder builder) {
+        return set(index, valueOf(builder));
+    }
+
+    @Override
+    public JsonArrayBuilder set(int index, JsonArrayBuilder builder) {
+        return set(index, valueOf(builder));
+    }
+
+    @Override
+    public JsonArrayBuilder remove(int index) {
+        Objects.checkIndex(index, size);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        values[--size] = null;
+        return this;
+    }
+
+    @Override
+    public JsonArray build() {
+        return YamlArray.of(values, 0, size);
+    }
+}
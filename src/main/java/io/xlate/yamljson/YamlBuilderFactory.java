@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonBuilderFactory;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+
+/**
+ * Factory of builders for the compact {@link YamlObject} and
+ * {@link YamlArray} values. No configuration properties are supported.
+ */
+final class YamlBuilderFactory implements JsonBuilderFactory {
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder() {
+        return new YamlObjectBuilder();
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder(JsonObject object) {
+        return new YamlObjectBuilder(object);
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder(Map<String, Object> object) {
+        return new YamlObjectBuilder(object);
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder() {
+        return new YamlArrayBuilder();
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder(JsonArray array) {
+        return new YamlArrayBuilder(array);
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder(Collection<?> collection) {
+        return new YamlArrayBuilder(collection);
+    }
+
+    @Override
+    public Map<String, ?> getConfigInUse() {
+        return Collections.emptyMap();
+    }
+}
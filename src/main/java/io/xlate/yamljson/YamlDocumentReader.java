@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import jakarta.json.JsonValue;
+
+/**
+ * Reads the documents of a YAML stream one at a time. Each call to
+ * {@link #next()} reads a single document in full, and the anchors of a
+ * document are released when it ends, so that the memory held by the reader
+ * is bounded by the size of a single document rather than the whole stream.
+ * <p>
+ * An empty document (e.g. two consecutive {@code ---} markers) is read as
+ * {@link JsonValue#NULL}.
+ *
+ * @see Yaml#createDocumentReader(java.io.Reader)
+ * @see Yaml#createDocumentReader(jakarta.json.JsonReaderFactory,
+ *      java.io.Reader)
+ * @since 0.2.2
+ */
+public interface YamlDocumentReader extends Iterator<JsonValue>, Closeable {
+
+    /**
+     * Returns {@code true} if the stream contains another document.
+     *
+     * @return true if there is another document to read
+     * @throws jakarta.json.JsonException
+     *             if an i/o error occurs
+     * @throws jakarta.json.stream.JsonParsingException
+     *             if the next document is not valid YAML
+     * @throws IllegalStateException
+     *             if the reader has been closed
+     */
+    @Override
+    boolean hasNext();
+
+    /**
+     * Reads the next document of the stream.
+     *
+     * @return the value of the document's root node
+     * @throws java.util.NoSuchElementException
+     *             if no documents remain in the stream
+     * @throws jakarta.json.JsonException
+     *             if an i/o error occurs
+     * @throws jakarta.json.stream.JsonParsingException
+     *             if the document is not valid YAML
+     * @throws IllegalStateException
+     *             if the reader has been closed
+     */
+    @Override
+    JsonValue next();
+
+    /**
+     * Returns a sequential, ordered stream of the remaining documents. Closing
+     * the stream closes this reader.
+     *
+     * @return a stream of the remaining documents
+     */
+    default Stream<JsonValue> stream() {
+        final int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, characteristics), false)
+                            .onClose(this::close);
+    }
+
+    /**
+     * Closes this reader and frees any resources associated with it, including
+     * the underlying input source.
+     *
+     * @throws jakarta.json.JsonException
+     *             if an i/o error occurs
+     */
+    @Override
+    void close();
+}
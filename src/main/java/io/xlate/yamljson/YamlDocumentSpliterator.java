@@ -0,0 +1,234 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import jakarta.json.JsonValue;
+
+/**
+ * Spliterator over the documents of a YAML stream held in a buffer. The
+ * buffer is split at document start markers ({@code ---} at the start of a
+ * line) so that each part contains whole documents and may be parsed
+ * independently, allowing the documents of a parallel stream to be parsed
+ * concurrently. A parser is created for a part only when its first document
+ * is requested, after which the part is no longer split. The documents of a
+ * part are read by a {@link YamlDocuments} reader, which closes the parser
+ * once its documents are exhausted or one is not valid. The readers of all
+ * parts are also closed by {@link #close()}, run when the stream is closed,
+ * to release the parsers of parts left unfinished by a short-circuiting
+ * operation.
+ * <p>
+ * A line beginning with {@code ---} can only be a document marker: the
+ * content of block and multi-line flow scalars may not begin a line with a
+ * marker. Directives immediately preceding a marker remain with the document
+ * that follows them. Input encoded as UTF-16 or UTF-32 (detected by its byte
+ * order mark) is not split.
+ * <p>
+ * The locations reported for errors in a part other than the first are
+ * relative to the start of the part.
+ */
+final class YamlDocumentSpliterator implements Spliterator<JsonValue> {
+
+    static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+    private final YamlParserFactory parserFactory;
+    private final ByteBuffer buffer;
+    private final boolean splittable;
+    /**
+     * The readers of the parts split from the same buffer, closed with the
+     * stream.
+     */
+    private final Queue<YamlDocuments> readers;
+    private int start;
+    private final int end;
+    private Spliterator<JsonValue> documents;
+
+    YamlDocumentSpliterator(YamlParserFactory parserFactory, ByteBuffer buffer) {
+        this(parserFactory, buffer, isSplittable(buffer), new ConcurrentLinkedQueue<>(), buffer.position(), buffer.limit());
+    }
+
+    private YamlDocumentSpliterator(YamlParserFactory parserFactory, ByteBuffer buffer, boolean splittable, Queue<YamlDocuments> readers, int start, int end) {
+        this.parserFactory = parserFactory;
+        this.buffer = buffer;
+        this.splittable = splittable;
+        this.readers = readers;
+        this.start = start;
+        this.end = end;
+    }
+
+    static boolean isSplittable(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            return false;
+        }
+
+        // UTF-16/32 byte order marks and UTF-32BE begin with one of these bytes
+        final int first = buffer.get(buffer.position()) & 0xFF;
+        return first != 0xFE && first != 0xFF && first != 0x00;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super JsonValue> action) {
+        return documents().tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super JsonValue> action) {
+        documents().forEachRemaining(action);
+    }
+
+    Spliterator<JsonValue> documents() {
+        if (documents == null) {
+            ByteBuffer part = buffer.duplicate();
+            part.limit(end).position(start);
+            YamlDocuments reader = new YamlDocuments(parserFactory.createYamlParser(part));
+            readers.add(reader);
+            documents = Spliterators.spliteratorUnknownSize(reader, CHARACTERISTICS);
+        }
+
+        return documents;
+    }
+
+    /**
+     * Close the readers of this part and all parts split from the same
+     * buffer.
+     */
+    void close() {
+        YamlDocuments reader;
+
+        while ((reader = readers.poll()) != null) {
+            reader.close();
+        }
+    }
+
+    @Override
+    public Spliterator<JsonValue> trySplit() {
+        if (!splittable || documents != null) {
+            return null;
+        }
+
+        final int middle = start + ((end - start) >>> 1);
+        int split = nextDocumentStart(middle, end);
+
+        if (split < 0) {
+            split = nextDocumentStart(start + 1, middle);
+        }
+
+        if (split < 0) {
+            return null;
+        }
+
+        split = precedingDirectivesStart(split);
+
+        if (split <= start) {
+            return null;
+        }
+
+        Spliterator<JsonValue> prefix = new YamlDocumentSpliterator(parserFactory, buffer, true, readers, start, split);
+        start = split;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        // Number of bytes in the part, an upper bound of the number of documents
+        return (long) end - start;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    /**
+     * Find the first document start marker beginning a line in the range
+     * from (inclusive) to limit (exclusive).
+     *
+     * @return the index of the marker, or -1 if not found
+     */
+    int nextDocumentStart(int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (isLineStart(i) && isDocumentStart(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    boolean isLineStart(int index) {
+        if (index == start) {
+            return true;
+        }
+        final byte previous = buffer.get(index - 1);
+        return previous == '\n' || previous == '\r';
+    }
+
+    boolean isDocumentStart(int index) {
+        if (index + 3 > end
+                || buffer.get(index) != '-'
+                || buffer.get(index + 1) != '-'
+                || buffer.get(index + 2) != '-') {
+            return false;
+        }
+
+        if (index + 3 == end) {
+            return true;
+        }
+
+        final byte next = buffer.get(index + 3);
+        return next == ' ' || next == '\t' || next == '\n' || next == '\r';
+    }
+
+    /**
+     * Move a split point preceding a document start marker back to the first
+     * of any directive lines ({@code %...}) that directly precede the marker.
+     */
+    int precedingDirectivesStart(int marker) {
+        int split = marker;
+
+        while (split > start) {
+            int lineStart = previousLineStart(split);
+
+            if (buffer.get(lineStart) != '%') {
+                break;
+            }
+
+            split = lineStart;
+        }
+
+        return split;
+    }
+
+    int previousLineStart(int lineStart) {
+        int i = lineStart - 1;
+
+        // Skip the line break ending the previous line (LF, CR or CRLF)
+        if (i > start && buffer.get(i) == '\n' && buffer.get(i - 1) == '\r') {
+            i--;
+        }
+
+        while (i > start && !isLineStart(i)) {
+            i--;
+        }
+
+        return i;
+    }
+}
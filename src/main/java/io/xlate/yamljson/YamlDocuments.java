@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.NoSuchElementException;
+
+import jakarta.json.JsonValue;
+
+/**
+ * Reader of the documents of a parser. The parser, with its scratch
+ * structures, is closed as soon as the documents are exhausted or a document
+ * is not valid, so that a reader (or stream of documents) that is not
+ * explicitly closed does not retain them.
+ */
+class YamlDocuments implements YamlDocumentReader {
+
+    final YamlParser<?, ?> parser;
+    boolean closed;
+    /**
+     * Set when the parser has been closed before the reader, after which no
+     * documents remain.
+     */
+    boolean finished;
+
+    YamlDocuments(YamlParser<?, ?> parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    public boolean hasNext() {
+        assertOpen();
+
+        if (finished) {
+            return false;
+        }
+
+        try {
+            // Document start/end events are not reported by the parser; the next event begins the next document
+            if (parser.hasNext()) {
+                return true;
+            }
+        } catch (RuntimeException e) {
+            throw finish(e);
+        }
+
+        finish(null);
+        return false;
+    }
+
+    @Override
+    public JsonValue next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more documents");
+        }
+
+        try {
+            parser.next();
+            return parser.getValue();
+        } catch (RuntimeException e) {
+            throw finish(e);
+        }
+    }
+
+    /**
+     * Close the parser once no more documents can be read from it.
+     *
+     * @param cause the exception ending the documents, or null when exhausted
+     * @return the cause, with any exception closing the parser suppressed
+     */
+    RuntimeException finish(RuntimeException cause) {
+        finished = true;
+
+        try {
+            parser.close();
+        } catch (RuntimeException e) {
+            if (cause == null) {
+                throw e;
+            }
+            cause.addSuppressed(e);
+        }
+
+        return cause;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+
+            if (!finished) {
+                finished = true;
+                parser.close();
+            }
+        }
+    }
+
+    void assertOpen() {
+        if (closed) {
+            throw new IllegalStateException("Reader has been closed");
+        }
+    }
+}
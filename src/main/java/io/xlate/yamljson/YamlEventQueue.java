@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import jakarta.json.stream.JsonParser.Event;
+
+/**
+ * Growable ring buffer of pending parser events. Each slot is stored across
+ * a set of parallel columns, primitive where possible, so that enqueuing and
+ * removing an event does not box or allocate.
+ *
+ * @param <E> the type of the YAML event from the underlying YAML library
+ */
+final class YamlEventQueue<E> {
+
+    private static final Event[] JSON_EVENTS = Event.values();
+    private static final YamlParser.NumberType[] NUMBER_TYPES = YamlParser.NumberType.values();
+
+    static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] yamlEvents;
+    private String[] values;
+    private byte[] jsonEvents;
+    private byte[] numberTypes;
+
+    private int head;
+    private int size;
+    private int mask;
+
+    YamlEventQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    YamlEventQueue(int initialCapacity) {
+        allocate(Integer.highestOneBit(Math.max(initialCapacity - 1, 1)) << 1);
+    }
+
+    private void allocate(int capacity) {
+        yamlEvents = new Object[capacity];
+        values = new String[capacity];
+        jsonEvents = new byte[capacity];
+        numberTypes = new byte[capacity];
+        mask = capacity - 1;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    void addLast(E yamlEvent, Event jsonEvent, YamlParser.NumberType numberType, String value) {
+        ensureCapacity();
+        set((head + size) & mask, yamlEvent, jsonEvent, numberType, value);
+        size++;
+    }
+
+    @SuppressWarnings("unchecked")
+    E yamlEvent() {
+        assertNotEmpty();
+        return (E) yamlEvents[head];
+    }
+
+    Event jsonEvent() {
+        assertNotEmpty();
+        return JSON_EVENTS[jsonEvents[head]];
+    }
+
+    YamlParser.NumberType numberType() {
+        assertNotEmpty();
+        return NUMBER_TYPES[numberTypes[head]];
+    }
+
+    String value() {
+        assertNotEmpty();
+        return values[head];
+    }
+
+    /**
+     * Discard the event at the head of the queue, releasing the references
+     * held by its slot.
+     */
+    void remove() {
+        assertNotEmpty();
+        yamlEvents[head] = null;
+        values[head] = null;
+        head = (head + 1) & mask;
+        size--;
+    }
+
+    void clear() {
+        Arrays.fill(yamlEvents, null);
+        Arrays.fill(values, null);
+        head = 0;
+        size = 0;
+    }
+
+    private void set(int slot, E yamlEvent, Event jsonEvent, YamlParser.NumberType numberType, String value) {
+        yamlEvents[slot] = yamlEvent;
+        values[slot] = value;
+        jsonEvents[slot] = (byte) jsonEvent.ordinal();
+        numberTypes[slot] = (byte) numberType.ordinal();
+    }
+
+    private void assertNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("Event queue is empty");
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size <= mask) {
+            return;
+        }
+
+        final Object[] oldYamlEvents = yamlEvents;
+        final String[] oldValues = values;
+        final byte[] oldJsonEvents = jsonEvents;
+        final byte[] oldNumberTypes = numberTypes;
+        final int oldCapacity = mask + 1;
+        // Slots from head to the end of the arrays, followed by those wrapped to the start
+        final int leading = oldCapacity - head;
+
+        allocate(oldCapacity << 1);
+
+        System.arraycopy(oldYamlEvents, head, yamlEvents, 0, leading);
+        System.arraycopy(oldYamlEvents, 0, yamlEvents, leading, head);
+        System.arraycopy(oldValues, head, values, 0, leading);
+        System.arraycopy(oldValues, 0, values, leading, head);
+        System.arraycopy(oldJsonEvents, head, jsonEvents, 0, leading);
+        System.arraycopy(oldJsonEvents, 0, jsonEvents, leading, head);
+        System.arraycopy(oldNumberTypes, head, numberTypes, 0, leading);
+        System.arraycopy(oldNumberTypes, 0, numberTypes, leading, head);
+
+        head = 0;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import jakarta.json.JsonNumber;
+
+/**
+ * Immutable {@link JsonNumber}. Values that fit in a long are held without
+ * creating a {@link BigDecimal}; equality and hash codes follow those of the
+ * BigDecimal value as required by {@link JsonNumber#equals(Object)}.
+ */
+abstract class YamlNumber implements JsonNumber {
+
+    static JsonNumber of(long value) {
+        return new LongNumber(value);
+    }
+
+    static JsonNumber of(double value) {
+        // Throws NumberFormatException for NaN and infinite values
+        return new DecimalNumber(BigDecimal.valueOf(value));
+    }
+
+    static JsonNumber of(BigDecimal value) {
+        return new DecimalNumber(value);
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.NUMBER;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof JsonNumber && bigDecimalValue().equals(((JsonNumber) obj).bigDecimalValue());
+    }
+
+    @Override
+    public int hashCode() {
+        return bigDecimalValue().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return bigDecimalValue().toString();
+    }
+
+    static final class LongNumber extends YamlNumber {
+        private final long value;
+
+        LongNumber(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isIntegral() {
+            return true;
+        }
+
+        @Override
+        public int intValue() {
+            return (int) value;
+        }
+
+        @Override
+        public int intValueExact() {
+            return Math.toIntExact(value);
+        }
+
+        @Override
+        public long longValue() {
+            return value;
+        }
+
+        @Override
+        public long longValueExact() {
+            return value;
+        }
+
+        @Override
+        public BigInteger bigIntegerValue() {
+            return BigInteger.valueOf(value);
+        }
+
+        @Override
+        public BigInteger bigIntegerValueExact() {
+            return BigInteger.valueOf(value);
+        }
+
+        @Override
+        public double doubleValue() {
+            return value;
+        }
+
+        @Override
+        public BigDecimal bigDecimalValue() {
+            return BigDecimal.valueOf(value);
+        }
+
+        @Override
+        public Number numberValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof LongNumber) {
+                return value == ((LongNumber) obj).value;
+            }
+            return super.equals(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            // Equal to BigDecimal.valueOf(value).hashCode() (unscaled value, scale 0)
+            return 31 * BigInteger.valueOf(value).hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return Long.toString(value);
+        }
+    }
+
+    static final class DecimalNumber extends YamlNumber {
+        private final BigDecimal value;
+
+        DecimalNumber(BigDecimal value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isIntegral() {
+            return value.scale() == 0;
+        }
+
+        @Override
+        public int intValue() {
+            return value.intValue();
+        }
+
+        @Override
+        public int intValueExact() {
+            return value.intValueExact();
+        }
+
+        @Override
+        public long longValue() {
+            return value.longValue();
+        }
+
+        @Override
+        public long longValueExact() {
+            return value.longValueExact();
+        }
+
+        @Override
+        public BigInteger bigIntegerValue() {
+            return value.toBigInteger();
+        }
+
+        @Override
+        public BigInteger bigIntegerValueExact() {
+            return value.toBigIntegerExact();
+        }
+
+        @Override
+        public double doubleValue() {
+            return value.doubleValue();
+        }
+
+        @Override
+        public BigDecimal bigDecimalValue() {
+            return value;
+        }
+    }
+}
@@ -15,6 +15,9 @@
  */
 package io.xlate.yamljson;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
 final class YamlNumbers {
 
     // Canonical forms per YAML 1.2 Core Schema - https://yaml.org/spec/1.2/spec.html#id2804092
@@ -22,6 +25,17 @@ final class YamlNumbers {
     static final String CANONICAL_NEGATIVE_INFINITY = "-.inf";
     static final String CANONICAL_NAN = ".nan";
 
+    // Decimal digits that always fit in a long without overflow
+    static final int MAX_LONG_DIGITS = 18;
+    // Exponent digits that always fit in an int without overflow
+    static final int MAX_EXPONENT_DIGITS = 9;
+
+    // Magnitudes of Long.MAX_VALUE and Long.MIN_VALUE in the supported radixes, used to decide if a value fits in a long
+    private static final String MAX_LONG_DECIMAL = Long.toString(Long.MAX_VALUE);
+    private static final String MIN_LONG_DECIMAL = Long.toString(Long.MIN_VALUE).substring(1);
+    private static final String MAX_LONG_OCTAL = Long.toOctalString(Long.MAX_VALUE);
+    private static final String MAX_LONG_HEXADECIMAL = Long.toHexString(Long.MAX_VALUE);
+
     private YamlNumbers() {
     }
 
@@ -48,6 +62,11 @@ final class YamlNumbers {
 
         final int length = dataText.length();
 
+        if (length == start) {
+            // Sign without digits
+            return false;
+        }
+
         for (int i = start; i < length; i++) {
             switch (dataText.charAt(i)) {
             case '0':
@@ -74,6 +93,8 @@ final class YamlNumbers {
 
         int dec = 0;
         int exp = 0;
+        int mantissaDigits = 0;
+        int exponentDigits = 0;
         boolean invalid = false;
 
         for (int i = 0, m = length; i < m && !invalid; i++) {
@@ -88,6 +109,11 @@ final class YamlNumbers {
             case '7':
             case '8':
             case '9':
+                if (exp > 0) {
+                    exponentDigits++;
+                } else {
+                    mantissaDigits++;
+                }
                 break;
 
             case 'e':
@@ -116,7 +142,209 @@ final class YamlNumbers {
             }
         }
 
-        return !invalid;
+        return !invalid && mantissaDigits > 0 && (exp == 0 || exponentDigits > 0);
+    }
+
+    /**
+     * Scan a floating point value previously validated by
+     * {@link #isFloat(CharSequence)} into its exact decimal value. Mantissas of
+     * up to {@value #MAX_LONG_DIGITS} significant digits are accumulated in a
+     * long and combined with the exponent to give the scale, independent of
+     * the default locale. Longer mantissas fall back to
+     * {@link BigDecimal#BigDecimal(String)}.
+     *
+     * @param value validated floating point text
+     * @return the exact decimal value of the text
+     */
+    static BigDecimal parseFloat(CharSequence value) {
+        final int length = value.length();
+        int i = 0;
+        boolean negative = false;
+
+        switch (value.charAt(0)) {
+        case '-':
+            negative = true;
+            i++;
+            break;
+        case '+':
+            i++;
+            break;
+        default:
+            break;
+        }
+
+        long unscaled = 0;
+        int significantDigits = 0;
+        long scale = 0;
+        boolean fraction = false;
+
+        for (; i < length; i++) {
+            final char c = value.charAt(i);
+
+            if (c == '.') {
+                fraction = true;
+            } else if (c == 'e' || c == 'E') {
+                break;
+            } else {
+                if (significantDigits == MAX_LONG_DIGITS) {
+                    return new BigDecimal(value.toString());
+                }
+
+                unscaled = unscaled * 10 + (c - '0');
+
+                if (unscaled != 0) {
+                    significantDigits++;
+                }
+                if (fraction) {
+                    scale++;
+                }
+            }
+        }
+
+        if (i < length) {
+            // Skip the 'e' or 'E'
+            i++;
+            boolean negativeExponent = false;
+
+            switch (value.charAt(i)) {
+            case '-':
+                negativeExponent = true;
+                i++;
+                break;
+            case '+':
+                i++;
+                break;
+            default:
+                break;
+            }
+
+            if (length - i > MAX_EXPONENT_DIGITS) {
+                return new BigDecimal(value.toString());
+            }
+
+            int exponent = 0;
+
+            for (; i < length; i++) {
+                exponent = exponent * 10 + (value.charAt(i) - '0');
+            }
+
+            scale += negativeExponent ? exponent : -exponent;
+
+            if (scale != (int) scale) {
+                return new BigDecimal(value.toString());
+            }
+        }
+
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, (int) scale);
+    }
+
+    /**
+     * Determine whether an integer value previously validated by
+     * {@link #isInteger(String)}, {@link #isOctal(String)}, or
+     * {@link #isHexadecimal(String)} fits in a long. The decision is made from
+     * the count of significant digits, comparing the digits themselves only
+     * when the count matches that of the largest long value in the radix.
+     *
+     * @param text validated integer text
+     * @param start index of the first sign or digit character, after any radix prefix
+     * @param radix the radix of the digits
+     * @return true if the value may be decoded with {@link #parseLong(String, int, int)}
+     */
+    static boolean fitsLong(String text, int start, int radix) {
+        final int length = text.length();
+        boolean negative = false;
+
+        switch (text.charAt(start)) {
+        case '-':
+            negative = true;
+            start++;
+            break;
+        case '+':
+            start++;
+            break;
+        default:
+            break;
+        }
+
+        while (start < length - 1 && text.charAt(start) == '0') {
+            start++;
+        }
+
+        final String limit = longLimit(radix, negative);
+        final int digits = length - start;
+
+        if (digits != limit.length()) {
+            return digits < limit.length();
+        }
+
+        for (int i = 0; i < digits; i++) {
+            int digit = Character.digit(text.charAt(start + i), radix);
+            int limitDigit = Character.digit(limit.charAt(i), radix);
+
+            if (digit != limitDigit) {
+                return digit < limitDigit;
+            }
+        }
+
+        return true;
+    }
+
+    private static String longLimit(int radix, boolean negative) {
+        switch (radix) {
+        case 8:
+            return MAX_LONG_OCTAL;
+        case 16:
+            return MAX_LONG_HEXADECIMAL;
+        default:
+            return negative ? MIN_LONG_DECIMAL : MAX_LONG_DECIMAL;
+        }
+    }
+
+    /**
+     * Decode an integer value known to fit in a long (see
+     * {@link #fitsLong(String, int, int)}) without allocation.
+     *
+     * @param text validated integer text
+     * @param start index of the first sign or digit character, after any radix prefix
+     * @param radix the radix of the digits
+     * @return the decoded value
+     */
+    static long parseLong(String text, int start, int radix) {
+        final int length = text.length();
+        boolean negative = false;
+
+        switch (text.charAt(start)) {
+        case '-':
+            negative = true;
+            start++;
+            break;
+        case '+':
+            start++;
+            break;
+        default:
+            break;
+        }
+
+        // Accumulate negatively so that Long.MIN_VALUE can be represented
+        long result = 0;
+
+        for (int i = start; i < length; i++) {
+            result = result * radix - Character.digit(text.charAt(i), radix);
+        }
+
+        return negative ? result : -result;
+    }
+
+    /**
+     * Decode an integer value of any size.
+     *
+     * @param text validated integer text
+     * @param start index of the first sign or digit character, after any radix prefix
+     * @param radix the radix of the digits
+     * @return the decoded value
+     */
+    static BigInteger parseBigInteger(String text, int start, int radix) {
+        return new BigInteger(text.substring(start), radix);
     }
 
     static boolean validSign(int currentIndex, CharSequence value) {
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+/**
+ * Immutable {@link JsonObject} storing its entries in a pair of exact-size
+ * arrays, in insertion order. Objects with more than
+ * {@value #INDEX_THRESHOLD} entries also hold an open-addressing table of
+ * entry positions indexed by the hash code of the key; smaller objects are
+ * searched linearly.
+ */
+final class YamlObject extends AbstractMap<String, JsonValue> implements JsonObject {
+
+    static final int INDEX_THRESHOLD = 8;
+
+    static final YamlObject EMPTY = new YamlObject(new String[0], new JsonValue[0], null);
+
+    private final String[] keys;
+    private final JsonValue[] values;
+    /**
+     * Positions (plus one, zero marks an empty slot) of the entries in the
+     * key and value arrays, or null when the object is small.
+     */
+    private final int[] index;
+    private Set<Map.Entry<String, JsonValue>> entrySet;
+
+    private YamlObject(String[] keys, JsonValue[] values, int[] index) {
+        this.keys = keys;
+        this.values = values;
+        this.index = index;
+    }
+
+    /**
+     * Create an object from a range of parallel key and value arrays. When a
+     * key occurs more than once, the entry keeps the position of the first
+     * occurrence and the value of the last, as when adding to a builder.
+     *
+     * @param keys   the keys of the entries
+     * @param values the values of the entries
+     * @param from   index of the first entry (inclusive)
+     * @param to     index following the last entry
+     * @return a new object, or the empty object when the range is empty
+     */
+    static YamlObject of(String[] keys, JsonValue[] values, int from, int to) {
+        return of(keys, null, values, from, to);
+    }
+
+    /**
+     * Create an object from a range of parallel key and value arrays, some of
+     * whose entries were merged into the mapping by merge keys ({@code <<}).
+     * An entry replaces an earlier entry with the same key only when its merge
+     * level is lower, or both are zero (explicit entries): explicit entries
+     * take precedence over merged entries, entries merged directly over those
+     * merged through a nested merge key, and earlier merged entries over later
+     * ones. Otherwise, as when adding to a builder, an entry keeps the position
+     * of the first occurrence of its key and the value of the last.
+     *
+     * @param keys        the keys of the entries
+     * @param mergeLevels the merge level of each entry (the number of merge
+     *                    keys through which it was merged, zero when given
+     *                    explicitly), or null when no entry was merged
+     * @param values      the values of the entries
+     * @param from        index of the first entry (inclusive)
+     * @param to          index following the last entry
+     * @return a new object, or the empty object when the range is empty
+     */
+    static YamlObject of(String[] keys, int[] mergeLevels, JsonValue[] values, int from, int to) {
+        final int length = to - from;
+
+        if (length == 0) {
+            return EMPTY;
+        }
+
+        final String[] objectKeys = new String[length];
+        final JsonValue[] objectValues = new JsonValue[length];
+        final int[] objectIndex = length > INDEX_THRESHOLD ? new int[tableSize(length)] : null;
+        final int[] objectLevels = mergeLevels != null ? new int[length] : null;
+        int size = 0;
+
+        for (int i = from; i < to; i++) {
+            final String key = keys[i];
+            final int position = objectIndex != null
+                    ? indexPut(objectIndex, objectKeys, key, size)
+                    : linearIndexOf(objectKeys, size, key);
+
+            if (position < 0) {
+                objectKeys[size] = key;
+                objectValues[size] = values[i];
+
+                if (objectLevels != null) {
+                    objectLevels[size] = mergeLevels[i];
+                }
+
+                size++;
+            } else if (objectLevels == null) {
+                objectValues[position] = values[i];
+            } else if (mergeLevels[i] < objectLevels[position] || mergeLevels[i] == 0) {
+                objectValues[position] = values[i];
+                objectLevels[position] = mergeLevels[i];
+            }
+        }
+
+        if (size < length) {
+            // Duplicate keys were replaced or dropped, the index (if any) remains valid for the leading entries
+            return new YamlObject(Arrays.copyOf(objectKeys, size), Arrays.copyOf(objectValues, size), objectIndex);
+        }
+
+        return new YamlObject(objectKeys, objectValues, objectIndex);
+    }
+
+    static int tableSize(int entries) {
+        // At most half full
+        return Integer.highestOneBit(entries - 1) << 2;
+    }
+
+    static int slot(Object key, int mask) {
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Find the position of key in the table, adding the position given if
+     * the key is not present.
+     *
+     * @return the position of the key, or -1 if it was added
+     */
+    static int indexPut(int[] table, String[] keys, String key, int position) {
+        final int mask = table.length - 1;
+
+        for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+            final int entry = table[slot];
+
+            if (entry == 0) {
+                table[slot] = position + 1;
+                return -1;
+            }
+            if (keys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    static int linearIndexOf(String[] keys, int size, Object key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+
+        if (index == null) {
+            return linearIndexOf(keys, keys.length, key);
+        }
+
+        final int mask = index.length - 1;
+
+        for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+            final int entry = index[slot];
+
+            if (entry == 0) {
+                return -1;
+            }
+            if (keys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    @Override
+    public ValueType getValueType() {
+        return ValueType.OBJECT;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public JsonValue get(Object key) {
+        final int position = indexOf(key);
+        return position >= 0 ? values[position] : null;
+    }
+
+    @Override
+    public JsonArray getJsonArray(String name) {
+        return (JsonArray) get(name);
+    }
+
+    @Override
+    public JsonObject getJsonObject(String name) {
+        return (JsonObject) get(name);
+    }
+
+    @Override
+    public JsonNumber getJsonNumber(String name) {
+        return (JsonNumber) get(name);
+    }
+
+    @Override
+    public JsonString getJsonString(String name) {
+        return (JsonString) get(name);
+    }
+
+    @Override
+    public String getString(String name) {
+        return getJsonString(name).getString();
+    }
+
+    @Override
+    public String getString(String name, String defaultValue) {
+        final JsonValue value = get(name);
+        return value instanceof JsonString ? ((JsonString) value).getString() : defaultValue;
+    }
+
+    @Override
+    public int getInt(String name) {
+        return getJsonNumber(name).intValue();
+    }
+
+    @Override
+    public int getInt(String name, int defaultValue) {
+        final JsonValue value = get(name);
+        return value instanceof JsonNumber ? ((JsonNumber) value).intValue() : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        final JsonValue value = get(name);
+
+        if (value == null) {
+            throw new NullPointerException("No mapping for " + name);
+        }
+        if (value == JsonValue.TRUE) {
+            return true;
+        }
+        if (value == JsonValue.FALSE) {
+            return false;
+        }
+        throw new ClassCastException("Not a boolean: " + value.getValueType());
+    }
+
+    @Override
+    public boolean getBoolean(String name, boolean defaultValue) {
+        final JsonValue value = get(name);
+
+        if (value == JsonValue.TRUE) {
+            return true;
+        }
+        if (value == JsonValue.FALSE) {
+            return false;
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public boolean isNull(String name) {
+        final JsonValue value = get(name);
+
+        if (value == null) {
+            throw new NullPointerException("No mapping for " + name);
+        }
+        return value == JsonValue.NULL;
+    }
+
+    @Override
+    public Set<Map.Entry<String, JsonValue>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public String toString() {
+        return YamlValues.toString(this);
+    }
+
+    final class EntrySet extends AbstractSet<Map.Entry<String, JsonValue>> {
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, JsonValue>> iterator() {
+            return new Iterator<Map.Entry<String, JsonValue>>() {
+                int next = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return next < keys.length;
+                }
+
+                @Override
+                public Map.Entry<String, JsonValue> next() {
+                    if (next >= keys.length) {
+                        throw new NoSuchElementException();
+                    }
+                    final int position = next++;
+                    return new AbstractMap.SimpleImmutableEntry<>(keys[position], values[position]);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
+
+/**
+ * Builder of {@link YamlObject}s. Entries are collected in insertion order
+ * and keys added more than once are resolved when the object is built.
+ */
+final class YamlObjectBuilder implements JsonObjectBuilder {
+
+    private String[] keys = new String[YamlObject.INDEX_THRESHOLD];
+    private JsonValue[] values = new JsonValue[YamlObject.INDEX_THRESHOLD];
+    private int size;
+
+    YamlObjectBuilder() {
+    }
+
+    YamlObjectBuilder(JsonObject object) {
+        object.forEach(this::add);
+    }
+
+    YamlObjectBuilder(Map<?, ?> map) {
+        map.forEach((key, value) -> add((String) key, YamlValues.toJsonValue(value)));
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, JsonValue value) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(value, "value");
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+            values = Arrays.copyOf(values, size << 1);
+        }
+
+        keys[size] = name;
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, String value) {
+        return add(name, new YamlString(value));
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, BigInteger value) {
+        return add(name, YamlValues.toJsonValue(Objects.requireNonNull(value, "value")));
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, BigDecimal value) {
+        return add(name, YamlNumber.of(Objects.requireNonNull(value, "value")));
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, int value) {
+        return add(name, YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, long value) {
+        return add(name, YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, double value) {
+        return add(name, YamlNumber.of(value));
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, boolean value) {
+        return add(name, value ? JsonValue.TRUE : JsonValue.FALSE);
+    }
+
+    @Override
+    public JsonObjectBuilder addNull(String name) {
+        return add(name, JsonValue.NULL);
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, JsonObjectBuilder builder) {
+        return add(name, Objects.requireNonNull(builder, "builder").build());
+    }
+
+    @Override
+    public JsonObjectBuilder add(String name, JsonArrayBuilder builder) {
+        return add(name, Objects.requireNonNull(builder, "builder").build());
+    }
+
+    @Override
+    public JsonObjectBuilder addAll(JsonObjectBuilder builder) {
+        Objects.requireNonNull(builder, "builder");
+
+        if (builder instanceof YamlObjectBuilder) {
+            YamlObjectBuilder other = (YamlObjectBuilder) builder;
+
+            for (int i = 0, m = other.size; i < m; i++) {
+                add(other.keys[i], other.values[i]);
+            }
+        } else {
+            builder.build().forEach(this::add);
+        }
+
+        return this;
+    }
+
+    @Override
+    public JsonObjectBuilder remove(String name) {
+        Objects.requireNonNull(name, "name");
+        int retained = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (!keys[i].equals(name)) {
+                keys[retained] = keys[i];
+                values[retained] = values[i];
+                retained++;
+            }
+        }
+
+        Arrays.fill(keys, retained, size, null);
+        Arrays.fill(values, retained, size, null);
+        size = retained;
+        return this;
+    }
+
+    @Override
+    public JsonObject build() {
+        return YamlObject.of(keys, values, 0, size);
+    }
+}
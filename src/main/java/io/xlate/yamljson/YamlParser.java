@@ -18,20 +18,21 @@ package io.xlate.yamljson;
 import java.io.IOException;
 import java.io.Reader;
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.ParsePosition;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
+import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import jakarta.json.JsonArray;
 import jakarta.json.JsonArrayBuilder;
@@ -67,27 +68,33 @@ abstract class YamlParser<E, M> implements JsonParser {
         NumberType() {
             this(0, 10);
         }
+
+        boolean isInteger() {
+            return this == INTEGER || this == OCTAL || this == HEXADECIMAL;
+        }
+    }
+
+    enum EventType {
+        STREAM_START,
+        STREAM_END,
+        DOCUMENT_START,
+        DOCUMENT_END,
+        MAPPING_START,
+        MAPPING_END,
+        SEQUENCE_START,
+        SEQUENCE_END,
+        SCALAR,
+        ALIAS,
+        COMMENT
     }
 
     private static final Logger LOGGER = Logger.getLogger(YamlParser.class.getName());
 
     static final String MERGE_KEY = "<<";
-    static final String STREAM_START = "StreamStart";
-    static final String STREAM_END = "StreamEnd";
-    static final String DOCUMENT_START = "DocumentStart";
-    static final String DOCUMENT_END = "DocumentEnd";
-    static final String MAPPING_START = "MappingStart";
-    static final String MAPPING_END = "MappingEnd";
-    static final String SEQUENCE_START = "SequenceStart";
-    static final String SEQUENCE_END = "SequenceEnd";
-    static final String SCALAR = "Scalar";
-    static final String ALIAS = "Alias";
-    static final String COMMENT = "Comment";
-
-    static final List<String> MAPPING_BOUNDARIES = List.of(MAPPING_START, MAPPING_END);
     static final String MSG_EXCEPTION = "Exception reading the YAML stream as JSON";
     static final String MSG_UNEXPECTED = "Unexpected jsonEvent reached parsing YAML: ";
     static final String MSG_INVALID_MERGE_ALIAS = "Unable to expand merge key (<<). Alias '%s' must reference a YAML mapping, but found %s/%s";
+    static final String MSG_MISSING_KEY = "Mapping entry has no key. The value of a merge key (<<) must be an alias of a YAML mapping";
 
     // Support all the values from the Core Schema (https://yaml.org/spec/1.2/spec.html#id2804923)
     static final Set<String> VALUES_NULL = Set.of("null", "Null", "NULL", "~");
@@ -103,151 +110,347 @@ abstract class YamlParser<E, M> implements JsonParser {
     static final BigDecimal UNSET_NUMBER = new BigDecimal(0);
     static final YamlLocation UNKNOWN_LOCATION = new YamlLocation(-1, -1, -1);
 
-    final JsonProvider jsonProvider = JsonProvider.provider();
-    final Reader yamlSource;
-    final Iterator<E> yamlEvents;
+    /**
+     * Provider configured by {@link Yaml.Settings#JSON_PROVIDER}, used to
+     * create values in place of the compact values of this library. Null when
+     * not configured.
+     */
+    final JsonProvider jsonProvider;
+    /**
+     * The factory that created this parser, used to re-target the parser at
+     * a new input.
+     */
+    final YamlParserFactory factory;
+    Reader yamlSource;
+    Iterator<E> yamlEvents;
     final Map<String, ?> properties;
     final long maxAliasExpansionSize;
-
-    final Deque<E> yamlEventQueue = new ArrayDeque<>();
-    final Deque<Boolean> aliasExpansionQueue = new ArrayDeque<>();
-    final Deque<Event> jsonEventQueue = new ArrayDeque<>();
-    final Deque<String> valueQueue = new ArrayDeque<>();
-    final Deque<NumberType> numberTypeQueue = new ArrayDeque<>();
-    final Deque<BigDecimal> numberQueue = new ArrayDeque<>();
-
-    final DecimalFormat decimalParser = new DecimalFormat();
-    final ParsePosition decimalPosition = new ParsePosition(0);
+    final int maxNestingDepth;
+    final long maxAnchoredEvents;
+    /**
+     * Cache of key names and short values shared with the other parsers of
+     * the factory, null when disabled.
+     */
+    final StringCache stringCache;
+    final int maxCachedValueLength;
+
+    /**
+     * Scratch structures of this parser, borrowed from the pool of the
+     * factory (if enabled) and released when the parser is closed. Null once
+     * released, after which the structures may be in use by another parser
+     * and the methods reading events fail (see {@link #assertOpen()}).
+     */
+    ParserBuffers buffers;
+    final YamlEventQueue<E> eventQueue;
 
     E currentYamlEvent;
     Event currentEvent;
     NumberType currentNumberType;
     String currentValue;
+    /**
+     * Number value of the current event, parsed from {@link #currentValue}
+     * on first access and cached until the parser advances.
+     */
     BigDecimal currentNumber;
-
-    final Boolean[] valueIsKey = new Boolean[200];
-    final List<Event> eventStack = new ArrayList<>();
-    final List<Boolean> mapMerge = new ArrayList<>();
-    int depth = -1;
-    final Deque<AnchorMetadata> anchorStack = new ArrayDeque<>();
+    /**
+     * Primitive value of the current event when its number type is an
+     * integer type, decoded on first access without creating a BigDecimal.
+     */
+    long currentLong;
+    boolean currentLongParsed;
+
+    /**
+     * Set while skipping the remainder of a structure. The values skipped are
+     * never read, so aliases are not expanded.
+     */
+    boolean skipping;
+
+    final NestingStack nesting;
+
+    /*
+     * Stacks used to build values, retained for reuse. Entries of the open
+     * structures (keys are null for array elements) with their merge levels,
+     * the index of the first entry of each open structure and its key (and
+     * merge level) in the enclosing object.
+     */
+    String[] entryKeys;
+    int[] entryMergeLevels;
+    JsonValue[] entryValues;
+    int[] structureStarts;
+    String[] structureKeys;
+    int[] structureMergeLevels;
+    final Deque<AnchorMetadata> anchorStack;
 
     static class AnchorMetadata {
         final String name;
         final int startDepth;
+        /**
+         * Index in {@link YamlParser#anchoredEvents anchoredEvents} of the
+         * first event of the anchored node.
+         */
+        final int start;
+        /**
+         * Index in {@link YamlParser#anchoredEvents anchoredEvents} following
+         * the last event of the anchored node, or -1 while the node is open.
+         */
+        int end = -1;
+        /**
+         * Number of scalars to which an alias of this anchor expands,
+         * including the expansions of nested aliases. Accumulated as events
+         * are recorded and saturated at the configured maximum.
+         */
+        long expansionSize;
 
-        public AnchorMetadata(String name, int startDepth) {
+        public AnchorMetadata(String name, int startDepth, int start) {
             this.name = name;
             this.startDepth = startDepth;
+            this.start = start;
         }
     }
 
-    static class AnchoredEvent<E> {
+    abstract static class AnchoredEvent<E> {
         final E yamlEvent;
+        final Event jsonEvent;
 
-        AnchoredEvent(E yamlEvent) {
+        AnchoredEvent(E yamlEvent, Event jsonEvent) {
             this.yamlEvent = yamlEvent;
+            this.jsonEvent = jsonEvent;
         }
     }
 
     static class AnchoredDataEvent<E> extends AnchoredEvent<E> {
-        final Event jsonEvent;
         final String value;
         final NumberType numberType;
-        final BigDecimal numberValue;
 
-        AnchoredDataEvent(E yamlEvent, Event jsonEvent, String value, NumberType numberType, BigDecimal numberValue) {
-            super(yamlEvent);
-            this.jsonEvent = jsonEvent;
+        AnchoredDataEvent(E yamlEvent, Event jsonEvent, String value, NumberType numberType) {
+            super(yamlEvent, jsonEvent);
             this.value = value;
             this.numberType = numberType;
-            this.numberValue = numberValue;
         }
     }
 
-    final Map<String, List<AnchoredEvent<E>>> anchoredEvents = new HashMap<>();
+    static class AnchoredAliasEvent<E> extends AnchoredEvent<E> {
+        /**
+         * The anchor referenced by the alias at the point it was read. A later
+         * anchor with the same name does not change the replayed events.
+         */
+        final AnchorMetadata anchor;
+        /**
+         * Whether the alias is the value of a merge key ({@code <<}), as
+         * determined when the alias was read. The mapping being read when the
+         * alias is replayed may differ from the one containing the alias.
+         */
+        final boolean merge;
+
+        AnchoredAliasEvent(E yamlEvent, Event jsonEvent, AnchorMetadata anchor, boolean merge) {
+            super(yamlEvent, jsonEvent);
+            this.anchor = anchor;
+            this.merge = merge;
+        }
+    }
 
-    YamlParser(Iterator<E> yamlEvents, Reader yamlReader, Map<String, ?> properties) {
+    /**
+     * Arena of the events recorded while any anchor is open. Each event is
+     * recorded once, regardless of the number of enclosing anchors; the events
+     * of nested anchors are always contiguous, so each anchor is represented by
+     * a range in the arena.
+     */
+    final List<AnchoredEvent<E>> anchoredEvents;
+    final Map<String, AnchorMetadata> anchors;
+    final AliasReplayStack replayStack;
+    /**
+     * The largest number of events recorded for the anchors of a document.
+     */
+    int anchoredEventsPeak;
+
+    @SuppressWarnings("unchecked")
+    YamlParser(YamlParserFactory factory, Iterator<E> yamlEvents, Reader yamlReader, Map<String, ?> properties, JsonProvider jsonProvider, StringCache stringCache, ParserBuffers buffers) {
+        this.factory = factory;
+        this.buffers = buffers;
+        this.eventQueue = (YamlEventQueue<E>) buffers.eventQueue;
+        this.nesting = buffers.nesting;
+        this.replayStack = buffers.replayStack;
+        this.anchoredEvents = (List<AnchoredEvent<E>>) (List<?>) buffers.anchoredEvents;
+        this.anchors = buffers.anchors;
+        this.anchorStack = buffers.anchorStack;
+        this.entryKeys = buffers.entryKeys;
+        this.entryMergeLevels = buffers.entryMergeLevels;
+        this.entryValues = buffers.entryValues;
+        this.structureStarts = buffers.structureStarts;
+        this.structureKeys = buffers.structureKeys;
+        this.structureMergeLevels = buffers.structureMergeLevels;
+        this.anchoredEventsPeak = buffers.anchoredEventsPeak;
+        this.jsonProvider = jsonProvider;
+        this.stringCache = stringCache;
+        this.maxCachedValueLength = (Integer) properties.get(Yaml.Settings.LOAD_STRING_CACHE_MAX_VALUE_LENGTH);
         this.yamlEvents = yamlEvents;
         this.yamlSource = yamlReader;
         this.properties = properties;
         this.maxAliasExpansionSize = (Long) properties.get(Yaml.Settings.LOAD_MAX_ALIAS_EXPANSION_SIZE);
-    }
+        this.maxNestingDepth = (Integer) properties.get(Yaml.Settings.LOAD_MAX_NESTING_DEPTH);
+        this.maxAnchoredEvents = (Long) properties.get(Yaml.Settings.LOAD_MAX_ANCHORED_EVENTS);
+    }
+
+    /**
+     * Whether the alias returned by the last call to
+     * {@link #advanceQueuedEvent()} or {@link #advanceReplayedEvent()} is the
+     * value of a merge key.
+     */
+    boolean mergeAlias;
+
+    /**
+     * The number of merge keys ({@code <<}) through which the entry of the
+     * current {@link Event#KEY_NAME KEY_NAME} event is merged into the current
+     * mapping, zero for an entry given explicitly in the mapping. An entry
+     * with a lower merge level takes precedence over an entry with the same
+     * key and a higher level.
+     */
+    int mergeLevel;
 
     void advanceEvent() {
-        currentYamlEvent = yamlEventQueue.remove();
-        currentEvent = jsonEventQueue.remove();
-        currentValue = valueQueue.remove();
-        currentNumberType = numberTypeQueue.remove();
-        currentNumber = numberQueue.remove();
+        AnchorMetadata aliased = replayStack.isEmpty() ? advanceQueuedEvent() : advanceReplayedEvent();
+
+        while (aliased != null && !skipping) {
+            replayAlias(aliased, mergeAlias);
 
-        if (currentNumberType == NumberType.NONE) {
-            currentNumber = null;
+            if (replayStack.isEmpty()) {
+                // Nothing to replay (alias of an empty mapping merged with `<<`)
+                fillQueues();
+                aliased = advanceQueuedEvent();
+            } else {
+                aliased = advanceReplayedEvent();
+            }
         }
+    }
+
+    /**
+     * Set the current event from the head of the event queue.
+     *
+     * @return the anchor referenced by the event when it is an alias,
+     *         otherwise null
+     */
+    AnchorMetadata advanceQueuedEvent() {
+        setCurrentEvent(eventQueue.yamlEvent(), eventQueue.jsonEvent(), eventQueue.numberType(), eventQueue.value());
+        eventQueue.remove();
+        mergeLevel = 0;
 
         String alias = getAlias(currentYamlEvent);
-        boolean aliasExpansion = aliasExpansionQueue.remove();
 
-        if (!aliasExpansion) {
-            addAnchoredEvent(currentYamlEvent, alias);
+        if (alias == null) {
+            return null;
         }
 
-        if (alias != null) {
-            Event jsonEventOverride = currentEvent != Event.VALUE_NULL ? currentEvent : null;
-            List<AnchoredEvent<E>> events = anchoredEvents.get(alias);
+        /*
+         * The queue holds the events of at most one source event, so the
+         * nesting state is that following the alias: its key is still the
+         * current key of the enclosing mapping.
+         */
+        mergeAlias = currentEvent != Event.KEY_NAME && nesting.isMerge();
+        return anchors.get(alias);
+    }
+
+    /**
+     * Set the current event from the innermost alias being replayed.
+     *
+     * @return the anchor referenced by the event when it is an alias,
+     *         otherwise null
+     */
+    AnchorMetadata advanceReplayedEvent() {
+        Event jsonEventOverride = replayStack.eventOverride();
+        AnchoredEvent<E> anchored = anchoredEvents.get(replayStack.position());
+        mergeLevel = replayStack.mergeLevel();
+        replayStack.advance(anchored.jsonEvent);
+
+        if (anchored instanceof AnchoredDataEvent) {
+            AnchoredDataEvent<E> dataEvent = (AnchoredDataEvent<E>) anchored;
+            Event jsonEvent = Objects.requireNonNullElse(jsonEventOverride, dataEvent.jsonEvent);
+            setCurrentEvent(dataEvent.yamlEvent, jsonEvent, dataEvent.numberType, dataEvent.value);
+            return null;
+        }
 
-            if (Boolean.TRUE.equals(mapMerge.get(depth))) {
-                String firstEvent = getEventId(events.get(0).yamlEvent);
-                String finalEvent = getEventId(events.get(events.size() - 1).yamlEvent);
+        setCurrentEvent(anchored.yamlEvent, anchored.jsonEvent, NumberType.NONE, "");
+        AnchoredAliasEvent<E> aliasEvent = (AnchoredAliasEvent<E>) anchored;
+        mergeAlias = aliasEvent.merge;
+        return aliasEvent.anchor;
+    }
 
-                if (List.of(firstEvent, finalEvent).equals(MAPPING_BOUNDARIES)) {
-                    events = events.subList(1, events.size() - 1);
-                } else {
-                    String message = String.format(MSG_INVALID_MERGE_ALIAS, alias, firstEvent, finalEvent);
-                    throw new JsonParsingException(message, getLocation(currentYamlEvent));
-                }
+    void setCurrentEvent(E yamlEvent, Event jsonEvent, NumberType numberType, String value) {
+        currentYamlEvent = yamlEvent;
+        currentEvent = jsonEvent;
+        currentNumberType = numberType;
+        currentValue = value;
+        currentNumber = null;
+        currentLongParsed = false;
+    }
+
+    /**
+     * Begin replaying the events of the given anchor for the current (alias)
+     * event. The events are not copied; they are served from the recorded
+     * anchor by a cursor on the {@link #replayStack}. The events of a mapping
+     * merged into the enclosing mapping are replayed without its start and
+     * end events.
+     */
+    void replayAlias(AnchorMetadata anchor, boolean merge) {
+        Event jsonEventOverride = currentEvent != Event.VALUE_NULL ? currentEvent : null;
+        int start = anchor.start;
+        int end = anchorEnd(anchor);
+
+        if (merge) {
+            EventType firstEvent = getEventType(anchoredEvents.get(start).yamlEvent);
+            EventType finalEvent = getEventType(anchoredEvents.get(end - 1).yamlEvent);
+
+            if (firstEvent == EventType.MAPPING_START && finalEvent == EventType.MAPPING_END) {
+                start++;
+                end--;
+            } else {
+                String message = String.format(MSG_INVALID_MERGE_ALIAS, anchor.name, firstEvent, finalEvent);
+                throw new JsonParsingException(message, getLocation(currentYamlEvent));
             }
+        }
 
-            ListIterator<AnchoredEvent<E>> iterator = events.listIterator(events.size());
+        replayStack.push(start, end, jsonEventOverride, merge);
+    }
 
-            /*
-             * Reverse iteration and add each event to the front of the queue.
-             **/
-            while (iterator.hasPrevious()) {
-                enqueue(iterator.previous(), jsonEventOverride);
-            }
+    /**
+     * Record an event read from the YAML source when at least one anchor is
+     * open. Events are recorded as they are enqueued - the queue is always
+     * empty when a source event is enqueued, so the arena receives events in
+     * document order.
+     */
+    void addAnchoredEvent(E yamlEvent, Event jsonEvent, NumberType numberType, String value) {
+        AnchorMetadata innermost = anchorStack.peekFirst();
 
-            advanceEvent();
-        }
-    }
+        if (innermost != null) {
+            if (anchoredEvents.size() >= maxAnchoredEvents) {
+                String message = String.format("Anchored events exceed the maximum retained: %d", maxAnchoredEvents);
+                throw new JsonParsingException(message, getLocation(yamlEvent));
+            }
 
-    void addAnchoredEvent(E yamlEvent, String alias) {
-        if (!anchorStack.isEmpty()) {
-            Iterator<AnchorMetadata> iter = anchorStack.iterator();
+            String alias = getAlias(yamlEvent);
 
-            while (iter.hasNext()) {
-                AnchorMetadata anchorMeta = iter.next();
+            if (alias != null) {
+                AnchorMetadata anchor = anchors.get(alias);
+                boolean merge = jsonEvent != Event.KEY_NAME && nesting.isMerge();
+                anchoredEvents.add(new AnchoredAliasEvent<>(yamlEvent, jsonEvent, anchor, merge));
+                innermost.expansionSize = addExpansionSize(innermost.expansionSize, anchor.expansionSize);
+            } else {
+                anchoredEvents.add(new AnchoredDataEvent<>(yamlEvent, jsonEvent, value, numberType));
 
-                if (anchorMeta.startDepth <= depth) {
-                    if (alias != null) {
-                        addAnchoredAliasEvent(anchorMeta.name, yamlEvent);
-                    } else {
-                        addAnchoredDataEvent(anchorMeta.name, yamlEvent, currentEvent, currentValue, currentNumberType, currentNumber);
-                    }
+                if (getEventType(yamlEvent) == EventType.SCALAR) {
+                    innermost.expansionSize = addExpansionSize(innermost.expansionSize, 1);
                 }
             }
         }
     }
 
-    void addAnchoredAliasEvent(String anchor, E yamlEvent) {
-        addAnchoredEvent(anchor, new AnchoredEvent<>(yamlEvent));
+    long addExpansionSize(long size, long increment) {
+        long sum = size + increment;
+        // Negative on overflow
+        return sum < 0 || sum > maxAliasExpansionSize ? maxAliasExpansionSize : sum;
     }
 
-    void addAnchoredDataEvent(String anchor, E yamlEvent, Event jsonEvent, String value, NumberType numberType, BigDecimal numberValue) {
-        addAnchoredEvent(anchor, new AnchoredDataEvent<>(yamlEvent, jsonEvent, value, numberType, numberValue));
-    }
-
-    void addAnchoredEvent(String anchor, AnchoredEvent<E> anchored) {
-        anchoredEvents.get(anchor).add(anchored);
+    int anchorEnd(AnchorMetadata anchor) {
+        return anchor.end < 0 ? anchoredEvents.size() : anchor.end;
     }
 
     BigDecimal parseNumber(NumberType numberType, String text) {
@@ -257,16 +460,14 @@ abstract class YamlParser<E, M> implements JsonParser {
         case OCTAL:
         case INTEGER:
         case HEXADECIMAL:
-            long parsedValue = Long.parseLong(text.substring(numberType.start), numberType.radix);
-            parsed = BigDecimal.valueOf(parsedValue);
+            if (YamlNumbers.fitsLong(text, numberType.start, numberType.radix)) {
+                parsed = BigDecimal.valueOf(YamlNumbers.parseLong(text, numberType.start, numberType.radix));
+            } else {
+                parsed = new BigDecimal(YamlNumbers.parseBigInteger(text, numberType.start, numberType.radix));
+            }
             break;
         case FLOAT:
-            decimalPosition.setIndex(0);
-            decimalParser.setParseBigDecimal(true);
-            if (text.indexOf('e') >= 0) {
-                text = text.replace('e', 'E');
-            }
-            parsed = (BigDecimal) decimalParser.parse(text, decimalPosition);
+            parsed = YamlNumbers.parseFloat(text);
             break;
         default:
             break;
@@ -275,50 +476,31 @@ abstract class YamlParser<E, M> implements JsonParser {
         return parsed;
     }
 
-    BigDecimal numberValue(Event jsonEvent, NumberType numberType, String value, BigDecimal numberValue) {
+    BigDecimal numberValue(Event jsonEvent, NumberType numberType, String value) {
         if (jsonEvent == Event.VALUE_NUMBER) {
-            numberValue = Objects.requireNonNullElseGet(numberValue, () -> parseNumber(numberType, value));
-            return Objects.requireNonNullElse(numberValue, UNSET_NUMBER);
+            return Objects.requireNonNullElse(parseNumber(numberType, value), UNSET_NUMBER);
         }
         return UNSET_NUMBER;
     }
 
-    void enqueueFirst(E yamlEvent, Boolean aliasExpansion, Event jsonEvent, NumberType numberType, String value, BigDecimal numberValue) {
-        yamlEventQueue.addFirst(yamlEvent);
-        aliasExpansionQueue.addFirst(aliasExpansion);
-        jsonEventQueue.addFirst(jsonEvent);
-        numberTypeQueue.addFirst(numberType);
-        valueQueue.addFirst(value);
-        numberQueue.addFirst(numberValue(jsonEvent, numberType, value, numberValue));
-    }
-
-    void enqueue(AnchoredEvent<E> anchor, Event jsonEventOverride) {
-        String alias = getAlias(anchor.yamlEvent);
-
-        if (alias != null) {
-            enqueueFirst(anchor.yamlEvent, Boolean.TRUE, Event.VALUE_NULL, NumberType.NONE, "", UNSET_NUMBER);
-        } else {
-            AnchoredDataEvent<E> dataEvent = (AnchoredDataEvent<E>) anchor;
-            Event jsonEvent = Objects.requireNonNullElse(jsonEventOverride, dataEvent.jsonEvent);
-            enqueueFirst(anchor.yamlEvent, Boolean.TRUE, jsonEvent, dataEvent.numberType, dataEvent.value, dataEvent.numberValue);
-        }
+    void enqueue(E yamlEvent, Event jsonEvent, NumberType numberType, String value) {
+        eventQueue.addLast(yamlEvent, jsonEvent, numberType, value);
+        addAnchoredEvent(yamlEvent, jsonEvent, numberType, value);
     }
 
-    void enqueue(E yamlEvent, Event jsonEvent, NumberType numberType, String value, BigDecimal numberValue) {
-        yamlEventQueue.addLast(yamlEvent);
-        aliasExpansionQueue.addLast(Boolean.FALSE);
-        jsonEventQueue.addLast(jsonEvent);
-        numberTypeQueue.addLast(numberType);
-        valueQueue.addLast(value);
-        numberQueue.addLast(numberValue(jsonEvent, numberType, value, numberValue));
+    void enqueueString(E yamlEvent, Event jsonEvent, String value) {
+        enqueue(yamlEvent, jsonEvent, NumberType.NONE, canonicalize(jsonEvent, value));
     }
 
-    void enqueueString(E yamlEvent, Event jsonEvent, String value) {
-        enqueue(yamlEvent, jsonEvent, NumberType.NONE, value, UNSET_NUMBER);
+    String canonicalize(Event jsonEvent, String value) {
+        if (stringCache != null && (jsonEvent == Event.KEY_NAME || value.length() <= maxCachedValueLength)) {
+            return stringCache.canonicalize(value);
+        }
+        return value;
     }
 
     void enqueueNumber(E yamlEvent, Event jsonEvent, NumberType numberType, String value) {
-        enqueue(yamlEvent, jsonEvent, numberType, value, null);
+        enqueue(yamlEvent, jsonEvent, numberType, value);
     }
 
     void enqueueConstantOrString(E yamlEvent, String dataText, Set<String> constants, Event constantType) {
@@ -426,18 +608,21 @@ abstract class YamlParser<E, M> implements JsonParser {
         }
     }
 
-    boolean enqueueDataElement(E yamlEvent, Boolean needKeyName) {
+    boolean enqueueDataElement(E yamlEvent, boolean needKeyName) {
         final String dataText = getValue(yamlEvent);
 
-        if (Boolean.TRUE.equals(needKeyName)) {
-            if (MERGE_KEY.equals(dataText)) {
-                mapMerge.set(depth, true);
+        if (needKeyName) {
+            final boolean merge = MERGE_KEY.equals(dataText);
+            // Each key replaces the merge key (if any) as the current key
+            nesting.setMerge(merge);
+
+            if (merge) {
                 return false;
             }
             enqueueString(yamlEvent, Event.KEY_NAME, dataText);
         } else if (isPlain(yamlEvent)) {
             if (dataText.isEmpty()) {
-                enqueue(yamlEvent, Event.VALUE_NULL, NumberType.NONE, "", UNSET_NUMBER);
+                enqueue(yamlEvent, Event.VALUE_NULL, NumberType.NONE, "");
             } else {
                 enqueueDataElement(yamlEvent, dataText);
             }
@@ -448,25 +633,26 @@ abstract class YamlParser<E, M> implements JsonParser {
         return true;
     }
 
-    void enqueueAlias(E yamlEvent, Boolean needKeyName) {
+    void enqueueAlias(E yamlEvent, boolean needKeyName) {
         String alias = getAlias(yamlEvent);
 
-        if (!anchoredEvents.containsKey(alias)) {
+        if (!anchors.containsKey(alias)) {
             throw new IllegalStateException("Encountered alias of missing anchor");
         }
 
-        if (Boolean.TRUE.equals(needKeyName)) {
-            List<AnchoredEvent<E>> anchored = anchoredEvents.get(alias);
+        if (needKeyName) {
+            nesting.setMerge(false);
+            AnchorMetadata anchor = anchors.get(alias);
 
-            if (anchored.size() != 1) {
+            if (anchorEnd(anchor) - anchor.start != 1) {
                 throw new IllegalStateException("Expected key but found alias of non-scalar anchor");
             }
 
             // Enqueue the alias event, specifying that the JSON event is KEY_NAME
-            enqueue(yamlEvent, Event.KEY_NAME, NumberType.NONE, "", UNSET_NUMBER);
+            enqueue(yamlEvent, Event.KEY_NAME, NumberType.NONE, "");
         } else {
-            if (maxAliasExpansionSize < Long.MAX_VALUE) {
-                long expansionSize = countExpansion(alias, maxAliasExpansionSize);
+            if (maxAliasExpansionSize < Long.MAX_VALUE && !skipping) {
+                long expansionSize = anchors.get(alias).expansionSize;
 
                 if (expansionSize >= maxAliasExpansionSize) {
                     String message = String.format("Alias '%s' expands to too many scalars: %d", alias, expansionSize);
@@ -474,127 +660,123 @@ abstract class YamlParser<E, M> implements JsonParser {
                 }
             }
 
-            enqueue(yamlEvent, Event.VALUE_NULL, NumberType.NONE, "", UNSET_NUMBER);
+            enqueue(yamlEvent, Event.VALUE_NULL, NumberType.NONE, "");
         }
     }
 
-    long countExpansion(String alias, long limit) {
-        List<AnchoredEvent<E>> anchored = anchoredEvents.get(alias);
-        long count = 0;
-
-        for (AnchoredEvent<E> event : anchored) {
-            String nestedAlias = getAlias(event.yamlEvent);
-
-            if (nestedAlias != null) {
-                count += countExpansion(nestedAlias, limit);
-            } else if (SCALAR.equals(getEventId(event.yamlEvent))) {
-                count++;
-            }
+    void incrementDepth(E yamlEvent, boolean object) {
+        if (nesting.inObject()) {
+            // The new structure is the value of the current key, a key follows it
+            nesting.setKeyExpected(true);
+        }
 
-            if (count >= limit) {
-                break;
-            }
+        if (nesting.depth() + 1 >= maxNestingDepth) {
+            String message = String.format("Maximum nesting depth exceeded: %d", maxNestingDepth);
+            throw new JsonParsingException(message, getLocation(yamlEvent));
         }
 
-        return count;
+        nesting.push(object);
     }
 
-    Boolean isKeyExpected() {
-        return depth > -1 ? this.valueIsKey[depth] : null;
+    void decrementDepth() {
+        nesting.pop();
     }
 
-    void incrementDepth(Event levelEvent, Boolean keyExpected) {
-        if (isKeyExpected() != null) {
-            this.valueIsKey[depth] = Boolean.TRUE;
+    void toggleKeyExpected(boolean keyExpected) {
+        if (nesting.inObject()) {
+            nesting.setKeyExpected(!keyExpected);
         }
-
-        depth++;
-        this.valueIsKey[depth] = keyExpected;
-        eventStack.add(depth, levelEvent);
-        mapMerge.add(depth, false);
-    }
-
-    void decrementDepth() {
-        eventStack.remove(depth);
-        mapMerge.remove(depth);
-        depth--;
     }
 
     void addAnchorMetadata(String anchor) {
         if (anchor != null) {
-            anchoredEvents.compute(anchor, (k, v) -> new ArrayList<>());
-            anchorStack.addFirst(new AnchorMetadata(anchor, depth));
+            AnchorMetadata metadata = new AnchorMetadata(anchor, nesting.depth(), anchoredEvents.size());
+            anchors.put(anchor, metadata);
+            anchorStack.addFirst(metadata);
         }
     }
 
-    void removeAnchorMetadata(E yamlEvent, Event jsonEvent) {
+    void removeAnchorMetadata() {
         AnchorMetadata anchor = anchorStack.peekFirst();
-        if (anchor != null && anchor.startDepth == depth) {
-            if (jsonEvent != null) {
-                addAnchoredDataEvent(anchor.name, yamlEvent, jsonEvent, "", NumberType.NONE, UNSET_NUMBER);
-            }
+        if (anchor != null && anchor.startDepth == nesting.depth()) {
+            anchor.end = anchoredEvents.size();
             anchorStack.removeFirst();
+
+            AnchorMetadata enclosing = anchorStack.peekFirst();
+
+            if (enclosing != null) {
+                enclosing.expansionSize = addExpansionSize(enclosing.expansionSize, anchor.expansionSize);
+            }
         }
     }
 
+    /**
+     * Anchors are scoped to a document, release the recorded events when the
+     * document ends. Any alias being replayed has already been exhausted since
+     * source events are only read once replay completes.
+     */
+    void releaseAnchors() {
+        anchoredEventsPeak = Math.max(anchoredEventsPeak, anchoredEvents.size());
+        anchorStack.clear();
+        anchors.clear();
+        anchoredEvents.clear();
+    }
+
     boolean enqueueEvent(E yamlEvent) {
         LOGGER.finer(() -> "Enqueue YAML jsonEvent: " + yamlEvent);
-        currentNumber = null;
-        removeAnchorMetadata(yamlEvent, null);
+        removeAnchorMetadata();
         boolean eventFound = true;
-        String eventId = getEventId(yamlEvent);
+        EventType eventType = getEventType(yamlEvent);
 
-        switch (eventId) {
+        switch (eventType) {
         case DOCUMENT_START:
+            eventFound = false;
+            break;
+
         case DOCUMENT_END:
+            releaseAnchors();
             eventFound = false;
             break;
 
         case SEQUENCE_START:
             addAnchorMetadata(getAnchor(yamlEvent));
-            incrementDepth(Event.START_ARRAY, null);
-            enqueue(yamlEvent, Event.START_ARRAY, NumberType.NONE, "", UNSET_NUMBER);
+            incrementDepth(yamlEvent, false);
+            enqueue(yamlEvent, Event.START_ARRAY, NumberType.NONE, "");
             break;
 
         case SEQUENCE_END:
-            enqueue(yamlEvent, Event.END_ARRAY, NumberType.NONE, "", UNSET_NUMBER);
+            enqueue(yamlEvent, Event.END_ARRAY, NumberType.NONE, "");
             decrementDepth();
-            removeAnchorMetadata(yamlEvent, Event.END_ARRAY);
+            removeAnchorMetadata();
             break;
 
         case MAPPING_START:
             addAnchorMetadata(getAnchor(yamlEvent));
-            incrementDepth(Event.START_OBJECT, Boolean.TRUE);
-            enqueue(yamlEvent, Event.START_OBJECT, NumberType.NONE, "", UNSET_NUMBER);
+            incrementDepth(yamlEvent, true);
+            enqueue(yamlEvent, Event.START_OBJECT, NumberType.NONE, "");
             break;
 
         case MAPPING_END:
-            enqueue(yamlEvent, Event.END_OBJECT, NumberType.NONE, "", UNSET_NUMBER);
+            enqueue(yamlEvent, Event.END_OBJECT, NumberType.NONE, "");
             decrementDepth();
-            removeAnchorMetadata(yamlEvent, Event.END_OBJECT);
+            removeAnchorMetadata();
             break;
 
         case SCALAR: {
             addAnchorMetadata(getAnchor(yamlEvent));
-            Boolean keyExpected = isKeyExpected();
+            boolean keyExpected = nesting.isKeyExpected();
             eventFound = enqueueDataElement(yamlEvent, keyExpected);
-
-            if (keyExpected != null) {
-                this.valueIsKey[depth] = Boolean.valueOf(!keyExpected);
-            }
+            toggleKeyExpected(keyExpected);
 
             break;
         }
 
         case ALIAS: {
-            Boolean keyExpected = isKeyExpected();
+            boolean keyExpected = nesting.isKeyExpected();
 
             enqueueAlias(yamlEvent, keyExpected);
             addAnchorMetadata(getAnchor(yamlEvent));
-
-            if (keyExpected != null) {
-                this.valueIsKey[depth] = Boolean.valueOf(!keyExpected);
-            }
+            toggleKeyExpected(keyExpected);
 
             break;
         }
@@ -604,7 +786,7 @@ abstract class YamlParser<E, M> implements JsonParser {
             eventFound = false;
             break;
         default:
-            throw new IllegalStateException("Unknown YAML event: " + eventId);
+            throw new IllegalStateException("Unknown YAML event: " + eventType);
         }
 
         return eventFound;
@@ -612,7 +794,7 @@ abstract class YamlParser<E, M> implements JsonParser {
 
     void fillQueues() {
         try {
-            while (yamlEvents.hasNext() && jsonEventQueue.isEmpty()) {
+            while (yamlEvents.hasNext() && eventQueue.isEmpty()) {
                 LOGGER.finer(() -> "eventQueue is empty, calling yamlEvents.next()");
 
                 if (enqueueEvent(yamlEvents.next())) {
@@ -672,16 +854,27 @@ abstract class YamlParser<E, M> implements JsonParser {
 
     @Override
     public boolean hasNext() {
-        if (jsonEventQueue.isEmpty()) {
+        assertOpen();
+
+        if (!replayStack.isEmpty()) {
+            return true;
+        }
+
+        if (eventQueue.isEmpty()) {
             fillQueues();
         }
 
-        return !jsonEventQueue.isEmpty();
+        return !eventQueue.isEmpty();
     }
 
     @Override
     public Event next() {
-        fillQueues();
+        assertOpen();
+
+        if (replayStack.isEmpty()) {
+            fillQueues();
+        }
+
         advanceEvent();
         return currentEvent;
     }
@@ -694,6 +887,14 @@ abstract class YamlParser<E, M> implements JsonParser {
 
     @Override
     public void close() {
+        try {
+            closeSource();
+        } finally {
+            releaseBuffers();
+        }
+    }
+
+    void closeSource() {
         try {
             yamlSource.close();
         } catch (IOException e) {
@@ -701,16 +902,93 @@ abstract class YamlParser<E, M> implements JsonParser {
         }
     }
 
+    /**
+     * Close the current input and read the events of a new input, discarding
+     * all state of the current input. The structures allocated while reading
+     * previous inputs are cleared and retained.
+     */
+    void reset(Iterator<E> yamlEvents, Reader yamlReader) {
+        closeSource();
+        retainBuffers().clear();
+        setCurrentEvent(null, null, null, null);
+        mergeLevel = 0;
+        skipping = false;
+        this.yamlEvents = yamlEvents;
+        this.yamlSource = yamlReader;
+    }
+
+    void assertOpen() {
+        if (buffers == null) {
+            throw new IllegalStateException("Parser has been closed");
+        }
+    }
+
+    /**
+     * Write the arrays replaced by this parser as they grew back to its
+     * scratch structures.
+     */
+    ParserBuffers retainBuffers() {
+        buffers.entryKeys = entryKeys;
+        buffers.entryMergeLevels = entryMergeLevels;
+        buffers.entryValues = entryValues;
+        buffers.structureStarts = structureStarts;
+        buffers.structureKeys = structureKeys;
+        buffers.structureMergeLevels = structureMergeLevels;
+        buffers.anchoredEventsPeak = Math.max(anchoredEventsPeak, anchoredEvents.size());
+        return buffers;
+    }
+
+    /**
+     * Return the scratch structures to the pool of the factory, once.
+     */
+    void releaseBuffers() {
+        if (buffers != null) {
+            final ParserBuffers released = retainBuffers();
+            buffers = null;
+            released.release();
+        }
+    }
+
+    BigDecimal currentNumber() {
+        if (currentNumber == null) {
+            currentNumber = numberValue(currentEvent, currentNumberType, currentValue);
+        }
+        return currentNumber;
+    }
+
+    long currentLong() {
+        if (!currentLongParsed) {
+            final String text = currentValue;
+            final int start = currentNumberType.start;
+            final int radix = currentNumberType.radix;
+
+            if (YamlNumbers.fitsLong(text, start, radix)) {
+                currentLong = YamlNumbers.parseLong(text, start, radix);
+            } else {
+                // Too large for a long, truncate as BigDecimal#longValue does
+                currentLong = currentNumber().longValue();
+            }
+
+            currentLongParsed = true;
+        }
+        return currentLong;
+    }
+
     @Override
     public BigDecimal getBigDecimal() {
         assertEventValueNumber();
-        return currentNumber;
+        return currentNumber();
     }
 
     @Override
     public long getLong() {
         assertEventValueNumber();
-        return currentNumber.longValue();
+
+        if (currentNumberType.isInteger()) {
+            return currentLong();
+        }
+
+        return currentNumber().longValue();
     }
 
     @Override
@@ -727,7 +1005,7 @@ abstract class YamlParser<E, M> implements JsonParser {
     @Override
     public boolean isIntegralNumber() {
         assertEventValueNumber();
-        return currentNumber.scale() == 0;
+        return currentNumberType.isInteger() || currentNumber().scale() == 0;
     }
 
     public boolean isPositiveInfinity() {
@@ -760,6 +1038,9 @@ abstract class YamlParser<E, M> implements JsonParser {
 
         if (mark != null) {
             location = new YamlLocation(getMarkLine(mark) + 1L, getMarkColumn(mark) + 1L, getMarkIndex(mark));
+        } else if (yamlEvent != null) {
+            // Events without marks (see Yaml.Settings.LOAD_USE_MARKS), the position is approximate
+            location = getReaderLocation();
         } else {
             location = UNKNOWN_LOCATION;
         }
@@ -792,76 +1073,271 @@ abstract class YamlParser<E, M> implements JsonParser {
         skip(Event.START_ARRAY);
     }
 
+    @Override
+    public Stream<JsonValue> getArrayStream() {
+        assertCurrentEvent(Event.START_ARRAY);
+
+        return stream(() -> {
+            if (next() == Event.END_ARRAY) {
+                return null;
+            }
+            return getValue();
+        });
+    }
+
+    @Override
+    public Stream<Map.Entry<String, JsonValue>> getObjectStream() {
+        assertCurrentEvent(Event.START_OBJECT);
+
+        return stream(() -> {
+            if (next() == Event.END_OBJECT) {
+                return null;
+            }
+
+            final String key = getString();
+            next();
+            return new AbstractMap.SimpleImmutableEntry<>(key, getValue());
+        });
+    }
+
+    @Override
+    public Stream<JsonValue> getValueStream() {
+        if (currentEvent != null) {
+            throw new IllegalStateException("getValueStream must be called before the first event, but got [" + currentEvent + ']');
+        }
+
+        // Each root value is a document of the YAML stream
+        return stream(() -> {
+            if (!hasNext()) {
+                return null;
+            }
+            next();
+            return getValue();
+        });
+    }
+
+    /**
+     * Create a sequential stream of the elements obtained from the given
+     * supplier, which is called lazily as each element is consumed and returns
+     * null when no elements remain.
+     */
+    static <T> Stream<T> stream(Supplier<T> nextElement) {
+        return StreamSupport.stream(new ElementSpliterator<>(nextElement), false);
+    }
+
+    /**
+     * Spliterator over elements read from the parser on demand. Splitting is
+     * not supported so that elements are never read ahead of the consumer and
+     * at most one element is held in memory at a time.
+     */
+    static final class ElementSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Supplier<T> nextElement;
+        private boolean done;
+
+        ElementSpliterator(Supplier<T> nextElement) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.nextElement = nextElement;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (done) {
+                return false;
+            }
+
+            final T element = nextElement.get();
+
+            if (element == null) {
+                done = true;
+                return false;
+            }
+
+            action.accept(element);
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+    }
+
+    void assertCurrentEvent(Event requiredEvent) {
+        if (currentEvent != requiredEvent) {
+            throw new IllegalStateException("Expected current state to be " + requiredEvent + ", but got [" + currentEvent + ']');
+        }
+    }
+
     JsonValue getJsonValue(Event requiredEvent) {
-        Event event = currentEvent();
+        assertOpen();
 
-        if (requiredEvent != null && event != requiredEvent) {
-            throw new IllegalStateException("Expected current state to be " + requiredEvent + ", but got [" + currentEvent() + ']');
+        if (requiredEvent != null) {
+            assertCurrentEvent(requiredEvent);
         }
 
-        Deque<Object> builders = new ArrayDeque<>();
-        Deque<String> keyNames = new LinkedList<>();
-        Object rootBuilder = null;
-        String keyName = null;
-        JsonValue rootValue = null;
-        int valueDepth = 0;
-        int iteration = 0;
+        return buildValue();
+    }
 
-        do {
-            event = currentOrNextEvent(iteration++, event);
+    /**
+     * Build the current value in a single pass over its events. The entries of
+     * all open structures are held in shared stacks and each structure is
+     * created once, when it ends, from its entries: copied to an array of its
+     * exact size by the compact value implementations, or added to a builder of
+     * the configured {@link JsonProvider}.
+     */
+    JsonValue buildValue() {
+        Event event = currentEvent;
 
+        switch (event) {
+        case START_ARRAY:
+        case START_OBJECT:
+            break;
+        case KEY_NAME:
+            return jsonProvider != null ? jsonProvider.createValue(currentValue) : new YamlString(currentValue);
+        default:
+            return getParsedValue(event);
+        }
+
+        String keyName = null;
+        int mergeLevel = 0;
+        int top = 0;
+        int depth = 0;
+
+        for (;;) {
             switch (event) {
             case KEY_NAME:
-                keyName = getString();
+                keyName = currentValue;
+                mergeLevel = this.mergeLevel;
                 break;
+
             case START_ARRAY:
-                rootBuilder = beginStructure(builders, keyNames, keyName, jsonProvider.createArrayBuilder());
-                keyName = null;
-                valueDepth++;
-                break;
             case START_OBJECT:
-                rootBuilder = beginStructure(builders, keyNames, keyName, jsonProvider.createObjectBuilder());
+                if (depth == structureStarts.length) {
+                    structureStarts = Arrays.copyOf(structureStarts, depth << 1);
+                    structureKeys = Arrays.copyOf(structureKeys, depth << 1);
+                    structureMergeLevels = Arrays.copyOf(structureMergeLevels, depth << 1);
+                }
+
+                structureStarts[depth] = top;
+                structureKeys[depth] = keyName;
+                structureMergeLevels[depth] = mergeLevel;
+                depth++;
                 keyName = null;
-                valueDepth++;
+                mergeLevel = 0;
                 break;
+
             case END_ARRAY:
-            case END_OBJECT:
-                endStructure(builders, keyNames);
-                valueDepth--;
-                break;
-            default:
-                JsonValue parsedValue = getParsedValue(event);
+            case END_OBJECT: {
+                final int start = structureStarts[--depth];
+                final JsonValue structure;
 
-                if (builders.isEmpty()) {
-                    rootValue = parsedValue;
+                if (event == Event.END_OBJECT) {
+                    assertEntryKeys(start, top);
+                    structure = createObject(start, top);
                 } else {
-                    addValue(builders.peekLast(), keyName, parsedValue);
+                    structure = createArray(start, top);
                 }
 
+                // Release the entries copied to the structure
+                Arrays.fill(entryKeys, start, top, null);
+                Arrays.fill(entryValues, start, top, null);
+                top = start;
+
+                if (depth == 0) {
+                    return structure;
+                }
+
+                keyName = structureKeys[depth];
+                structureKeys[depth] = null;
+                top = pushEntry(top, keyName, structureMergeLevels[depth], structure);
+                keyName = null;
+                break;
+            }
+
+            default:
+                top = pushEntry(top, keyName, mergeLevel, getParsedValue(event));
                 keyName = null;
+                mergeLevel = 0;
                 break;
             }
-        } while (valueDepth > 0);
 
-        if (rootBuilder != null) {
-            rootValue = build(rootBuilder);
-        } else if (rootValue == null) {
-            // method was called at KEY_NAME
-            Objects.requireNonNull(keyName, "Expected value for KEY_NAME, but it was null");
-            rootValue = jsonProvider.createValue(keyName);
+            event = next();
+        }
+    }
+
+    void assertEntryKeys(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (entryKeys[i] == null) {
+                throw new JsonParsingException(MSG_MISSING_KEY, getLocation());
+            }
+        }
+    }
+
+    int pushEntry(int top, String keyName, int mergeLevel, JsonValue value) {
+        if (top == entryValues.length) {
+            entryKeys = Arrays.copyOf(entryKeys, top << 1);
+            entryMergeLevels = Arrays.copyOf(entryMergeLevels, top << 1);
+            entryValues = Arrays.copyOf(entryValues, top << 1);
+        }
+
+        entryKeys[top] = keyName;
+        entryMergeLevels[top] = mergeLevel;
+        entryValues[top] = value;
+        return top + 1;
+    }
+
+    /**
+     * Create an object from its entries. Explicit entries take precedence over
+     * entries merged with a merge key, regardless of their order (see
+     * {@link YamlObject#of(String[], int[], JsonValue[], int, int)}).
+     */
+    JsonValue createObject(int start, int end) {
+        final int[] mergeLevels = hasMergedEntries(start, end) ? entryMergeLevels : null;
+        final YamlObject object = YamlObject.of(entryKeys, mergeLevels, entryValues, start, end);
+
+        if (jsonProvider == null) {
+            return object;
+        }
+
+        JsonObjectBuilder builder = jsonProvider.createObjectBuilder();
+        object.forEach(builder::add);
+        return builder.build();
+    }
+
+    boolean hasMergedEntries(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (entryMergeLevels[i] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    JsonValue createArray(int start, int end) {
+        if (jsonProvider == null) {
+            return YamlArray.of(entryValues, start, end);
+        }
+
+        JsonArrayBuilder builder = jsonProvider.createArrayBuilder();
+
+        for (int i = start; i < end; i++) {
+            builder.add(entryValues[i]);
         }
 
-        return rootValue;
+        return builder.build();
     }
 
     void skip(Event structuralEvent) {
-        final int terminalDepth = eventStack.lastIndexOf(structuralEvent);
+        assertOpen();
+
+        final int terminalDepth = nesting.lastIndexOf(structuralEvent == Event.START_OBJECT);
 
         if (terminalDepth < 0) {
             return;
         }
 
         Event event = currentEvent();
+        final int depth = nesting.depth();
         int valueDepth;
         int iteration = 0;
 
@@ -883,61 +1359,38 @@ abstract class YamlParser<E, M> implements JsonParser {
             break;
         }
 
-        do {
-            event = currentOrNextEvent(iteration++, event);
-
-            switch (event) {
-            case START_ARRAY:
-            case START_OBJECT:
-                valueDepth++;
-                break;
-
-            case END_ARRAY:
-            case END_OBJECT:
-                valueDepth--;
-                break;
-
-            default:
-                break;
-            }
-        } while (valueDepth >= terminalDepth);
-    }
+        skipping = true;
 
-    Event currentOrNextEvent(int iteration, Event event) {
-        return iteration > 0 ? next() : event;
-    }
-
-    Object beginStructure(Deque<Object> builders, Deque<String> keyNames, String keyName, Object builder) {
-        builders.add(builder);
-        keyNames.push(keyName);
-
-        return builders.peek();
-    }
+        try {
+            do {
+                event = currentOrNextEvent(iteration++, event);
 
-    void endStructure(Deque<Object> builders, Deque<String> keyNames) {
-        final Object completedStructure = builders.removeLast();
+                switch (event) {
+                case START_ARRAY:
+                case START_OBJECT:
+                    valueDepth++;
+                    break;
 
-        if (builders.isEmpty()) {
-            // Nothing to do, this is the top level builder
-        } else {
-            final String keyName = keyNames.pop();
-            final JsonValue value = build(completedStructure);
-            final Object parentBuilder = builders.peekLast();
+                case END_ARRAY:
+                case END_OBJECT:
+                    valueDepth--;
+                    break;
 
-            addValue(parentBuilder, keyName, value);
+                default:
+                    break;
+                }
+            } while (valueDepth >= terminalDepth);
+        } finally {
+            /*
+             * The queue is empty once the terminal event is reached, the events
+             * following it are enqueued after skipping ends.
+             */
+            skipping = false;
         }
     }
 
-    JsonValue build(Object builder) {
-        final JsonValue value;
-
-        if (builder instanceof JsonObjectBuilder) {
-            value = ((JsonObjectBuilder) builder).build();
-        } else {
-            value = ((JsonArrayBuilder) builder).build();
-        }
-
-        return value;
+    Event currentOrNextEvent(int iteration, Event event) {
+        return iteration > 0 ? next() : event;
     }
 
     JsonValue getParsedValue(Event event) {
@@ -954,10 +1407,10 @@ abstract class YamlParser<E, M> implements JsonParser {
             value = JsonValue.NULL;
             break;
         case VALUE_NUMBER:
-            value = jsonProvider.createValue(getBigDecimal());
+            value = jsonProvider != null ? jsonProvider.createValue(getBigDecimal()) : getNumberValue();
             break;
         case VALUE_STRING:
-            value = jsonProvider.createValue(getString());
+            value = jsonProvider != null ? jsonProvider.createValue(getString()) : new YamlString(getString());
             break;
         default:
             throw new IllegalStateException("Non-value event: " + event);
@@ -966,24 +1419,31 @@ abstract class YamlParser<E, M> implements JsonParser {
         return value;
     }
 
-    void addValue(Object builder, String keyName, JsonValue value) {
-        if (keyName != null) {
-            ((JsonObjectBuilder) builder).add(keyName, value);
-        } else {
-            ((JsonArrayBuilder) builder).add(value);
+    JsonValue getNumberValue() {
+        final NumberType numberType = currentNumberType;
+
+        if (numberType.isInteger() && YamlNumbers.fitsLong(currentValue, numberType.start, numberType.radix)) {
+            return YamlNumber.of(currentLong());
         }
+
+        return YamlNumber.of(getBigDecimal());
     }
 
     protected abstract M getMark(E event);
     protected abstract int getMarkLine(M mark);
     protected abstract int getMarkColumn(M mark);
     protected abstract int getMarkIndex(M mark);
+    /**
+     * @return the current position of the underlying YAML reader, the
+     *         approximate location of the most recently read event
+     */
+    protected abstract YamlLocation getReaderLocation();
 
     protected abstract String getAnchor(E event);
 
     protected abstract String getAlias(E event);
 
-    protected abstract String getEventId(E event);
+    protected abstract EventType getEventType(E event);
 
     protected abstract String getValue(E event);
 
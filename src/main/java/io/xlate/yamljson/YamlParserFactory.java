@@ -19,19 +19,33 @@ import static io.xlate.yamljson.SettingsBuilder.getProperty;
 import static io.xlate.yamljson.SettingsBuilder.loadProvider;
 import static io.xlate.yamljson.SettingsBuilder.replace;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import jakarta.json.JsonArray;
+import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
 import jakarta.json.stream.JsonParser;
 import jakarta.json.stream.JsonParserFactory;
 
@@ -43,16 +57,39 @@ import org.yaml.snakeyaml.LoaderOptions;
 
 class YamlParserFactory implements JsonParserFactory, SettingsBuilder {
 
-    static final Function<Map<String, Object>, Object> SNAKEYAML_FACTORY =
-            // No load properties supported currently
-            props -> new org.yaml.snakeyaml.Yaml(buildLoaderOptions(props));
+    private static final class SnakeYamlFactory {
+        private final LoaderOptions options;
+        private final boolean markSnippets;
+
+        private SnakeYamlFactory(Map<String, Object> props) {
+            this.options = buildLoaderOptions(props);
+            this.markSnippets = getProperty(props, Yaml.Settings.LOAD_MARK_SNIPPETS, Boolean::valueOf, true);
+        }
+
+        private org.yaml.snakeyaml.reader.StreamReader streamReader(Reader yaml) {
+            Objects.requireNonNull(yaml, "Reader cannot be null");
+
+            if (markSnippets) {
+                return new org.yaml.snakeyaml.reader.StreamReader(yaml);
+            }
+
+            return new SnakeYamlParser.UnbufferedMarkStreamReader(yaml);
+        }
+
+        private Iterator<org.yaml.snakeyaml.events.Event> parse(org.yaml.snakeyaml.reader.StreamReader reader) {
+            return new SnakeYamlParser.EventIterator(new org.yaml.snakeyaml.parser.ParserImpl(reader, options));
+        }
 
-    static LoaderOptions buildLoaderOptions(Map<String, Object> properties) {
-        return Optional.ofNullable(properties.get(Yaml.Settings.LOAD_CONFIG))
-                .map(LoaderOptions.class::cast)
-                .orElseGet(LoaderOptions::new);
+        static LoaderOptions buildLoaderOptions(Map<String, Object> properties) {
+            return Optional.ofNullable(properties.get(Yaml.Settings.LOAD_CONFIG))
+                    .map(LoaderOptions.class::cast)
+                    .orElseGet(LoaderOptions::new);
+        }
     }
 
+    static final Function<Map<String, Object>, Object> SNAKEYAML_FACTORY =
+            SnakeYamlFactory::new;
+
     private static final class SnakeYamlEngineFactory {
         private final LoadSettings settings;
 
@@ -60,9 +97,13 @@ class YamlParserFactory implements JsonParserFactory, SettingsBuilder {
             this.settings = buildLoadSettings(props);
         }
 
-        private Iterable<Event> parseReader(Reader yaml) {
+        private StreamReader streamReader(Reader yaml) {
             Objects.requireNonNull(yaml, "Reader cannot be null");
-            return () -> new ParserImpl(settings, new StreamReader(settings, yaml));
+            return new StreamReader(settings, yaml);
+        }
+
+        private Iterator<Event> parse(StreamReader reader) {
+            return new ParserImpl(settings, reader);
         }
 
         @SuppressWarnings("removal")
@@ -78,10 +119,26 @@ class YamlParserFactory implements JsonParserFactory, SettingsBuilder {
     static final Function<Map<String, Object>, Object> SNAKEYAML_ENGINE_FACTORY =
             SnakeYamlEngineFactory::new;
 
+    /**
+     * Size in bytes from which files are mapped into memory rather than read
+     * into a heap buffer.
+     */
+    static final long MAP_THRESHOLD = 1L << 20;
+
     private final Map<String, Object> properties;
     private final boolean useSnakeYamlEngine;
     private final Object snakeYamlProvider;
     private final Function<InputStream, Reader> yamlReaderProvider;
+    /**
+     * Provider of the values created by parsers, or null to create the
+     * compact values of this library.
+     */
+    private final JsonProvider jsonProvider;
+    private final StringCache stringCache;
+    /**
+     * Pool of the scratch buffers of parsers, or null when disabled.
+     */
+    private final ParserBufferPool bufferPool;
 
     YamlParserFactory(Map<String, ?> properties) {
         this.properties = new HashMap<>(properties);
@@ -111,20 +168,198 @@ class YamlParserFactory implements JsonParserFactory, SettingsBuilder {
 
         // Ensure this property is always set, defaulting to Long.MAX_VALUE
         replace(this.properties, Yaml.Settings.LOAD_MAX_ALIAS_EXPANSION_SIZE, Long::valueOf, Long.MAX_VALUE);
+        replace(this.properties, Yaml.Settings.LOAD_MAX_NESTING_DEPTH, Integer::valueOf, Yaml.Settings.DEFAULT_MAX_NESTING_DEPTH);
+        replace(this.properties, Yaml.Settings.LOAD_MAX_ANCHORED_EVENTS, Long::valueOf, Long.MAX_VALUE);
+
+        replace(this.properties, Yaml.Settings.LOAD_STRING_CACHE_SIZE, Integer::valueOf, 0);
+        replace(this.properties, Yaml.Settings.LOAD_STRING_CACHE_MAX_VALUE_LENGTH, Integer::valueOf, 0);
+        replace(this.properties, Yaml.Settings.LOAD_BUFFER_POOL_SIZE, Integer::valueOf, 0);
+        replace(this.properties, Yaml.Settings.LOAD_BUFFER_POOL_MAX_CAPACITY, Integer::valueOf, Yaml.Settings.DEFAULT_BUFFER_POOL_MAX_CAPACITY);
+
+        jsonProvider = (JsonProvider) this.properties.get(Yaml.Settings.JSON_PROVIDER);
+
+        int stringCacheSize = (Integer) this.properties.get(Yaml.Settings.LOAD_STRING_CACHE_SIZE);
+        stringCache = stringCacheSize > 0 ? new StringCache(stringCacheSize) : null;
+
+        int bufferPoolSize = (Integer) this.properties.get(Yaml.Settings.LOAD_BUFFER_POOL_SIZE);
+        int bufferPoolMaxCapacity = (Integer) this.properties.get(Yaml.Settings.LOAD_BUFFER_POOL_MAX_CAPACITY);
+        bufferPool = bufferPoolSize > 0 ? new ParserBufferPool(bufferPoolSize, bufferPoolMaxCapacity) : null;
+    }
+
+    Yaml.CacheStatistics stringCacheStatistics() {
+        return stringCache != null ? stringCache.statistics() : new Yaml.CacheStatistics(0, 0, 0);
+    }
+
+    Yaml.CacheStatistics bufferPoolStatistics() {
+        return bufferPool != null ? bufferPool.statistics() : new Yaml.CacheStatistics(0, 0, 0);
+    }
+
+    ParserBuffers borrowBuffers() {
+        return bufferPool != null ? bufferPool.borrow() : new ParserBuffers(null);
     }
 
     YamlParser<?, ?> createYamlParser(InputStream stream) { // NOSONAR - ignore use of wildcards
-        return createYamlParser(yamlReaderProvider.apply(stream));
+        Objects.requireNonNull(stream, "in");
+        ParserBuffers buffers = borrowBuffers();
+        return createYamlParser(new Utf8Reader(stream, yamlReaderProvider, buffers.decodeBuffer()), buffers);
+    }
+
+    YamlParser<?, ?> createYamlParser(InputStream stream, Charset charset) { // NOSONAR - ignore use of wildcards
+        Objects.requireNonNull(stream, "in");
+        Objects.requireNonNull(charset, "charset");
+        /*
+         * An explicit charset, including UTF-8, is decoded as given by the JDK
+         * reader: malformed input is replaced and a byte order mark is passed
+         * to the backend, unlike the detection of the charset-less overload.
+         */
+        return createYamlParser(new InputStreamReader(stream, charset));
+    }
+
+    YamlParser<?, ?> createYamlParser(ByteBuffer buffer) { // NOSONAR - ignore use of wildcards
+        Objects.requireNonNull(buffer, "buffer");
+        ParserBuffers buffers = borrowBuffers();
+        // Heap buffers are decoded in place
+        byte[] decodeBuffer = buffer.hasArray() ? null : buffers.decodeBuffer();
+        return createYamlParser(new Utf8Reader(buffer, yamlReaderProvider, decodeBuffer), buffers);
+    }
+
+    YamlParser<?, ?> createYamlParser(Path path) { // NOSONAR - ignore use of wildcards
+        Objects.requireNonNull(path, "path");
+
+        try {
+            if (Files.size(path) > Integer.MAX_VALUE) {
+                // Too large for a single buffer
+                return createYamlParser(Files.newInputStream(path));
+            }
+        } catch (IOException e) {
+            throw new JsonException("Exception reading YAML file " + path, e);
+        }
+
+        return createYamlParser(readFile(path));
+    }
+
+    /**
+     * Read the content of a file into a buffer. Files of at least
+     * {@link #MAP_THRESHOLD} bytes are mapped into memory, so that their
+     * content is read from the page cache as it is parsed, and smaller files
+     * are read in full into a heap buffer.
+     *
+     * @throws JsonException
+     *             if the file cannot be read or is too large to be held in
+     *             a single buffer
+     */
+    static ByteBuffer readFile(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            if (size >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read until full, the file may be truncated concurrently
+            }
+
+            return buffer.flip();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JsonException("Exception reading YAML file " + path, e);
+        }
     }
 
     YamlParser<?, ?> createYamlParser(Reader reader) { // NOSONAR - ignore use of wildcards
+        return createYamlParser(reader, borrowBuffers());
+    }
+
+    YamlParser<?, ?> createYamlParser(Reader reader, ParserBuffers buffers) { // NOSONAR - ignore use of wildcards
         if (useSnakeYamlEngine) {
             var provider = (SnakeYamlEngineFactory) snakeYamlProvider;
-            return new SnakeYamlEngineParser(provider.parseReader(reader).iterator(), reader, properties);
+            var streamReader = provider.streamReader(reader);
+            return new SnakeYamlEngineParser(this, provider.parse(streamReader), streamReader, reader, properties, jsonProvider, stringCache, buffers);
+        }
+
+        var provider = (SnakeYamlFactory) snakeYamlProvider;
+        var streamReader = provider.streamReader(reader);
+        return new SnakeYamlParser(this, provider.parse(streamReader), streamReader, reader, properties, jsonProvider, stringCache, buffers);
+    }
+
+    /**
+     * Re-target a parser created by this factory at a new input, see
+     * {@link YamlParser#reset(Iterator, Reader)}.
+     *
+     * @throws IllegalStateException
+     *             if the parser has been closed
+     */
+    void resetParser(YamlParser<?, ?> parser, Reader reader) {
+        Objects.requireNonNull(reader, "reader");
+
+        parser.assertOpen();
+
+        if (useSnakeYamlEngine) {
+            var provider = (SnakeYamlEngineFactory) snakeYamlProvider;
+            var streamReader = provider.streamReader(reader);
+            ((SnakeYamlEngineParser) parser).reset(provider.parse(streamReader), streamReader, reader);
+        } else {
+            var provider = (SnakeYamlFactory) snakeYamlProvider;
+            var streamReader = provider.streamReader(reader);
+            ((SnakeYamlParser) parser).reset(provider.parse(streamReader), streamReader, reader);
         }
+    }
+
+    void resetParser(YamlParser<?, ?> parser, InputStream stream) {
+        Objects.requireNonNull(stream, "in");
+
+        parser.assertOpen();
+
+        resetParser(parser, new Utf8Reader(stream, yamlReaderProvider, parser.buffers.decodeBuffer()));
+    }
+
+    /**
+     * Read the value referenced by a JSON Pointer in the first document read
+     * from the reader, closing the reader once the value is complete.
+     */
+    JsonValue readValue(Reader reader, YamlPointer pointer) {
+        Objects.requireNonNull(reader, "reader");
+
+        try (YamlParser<?, ?> parser = createYamlParser(reader)) {
+            return pointer.getValue(parser);
+        }
+    }
 
-        var provider = (org.yaml.snakeyaml.Yaml) snakeYamlProvider;
-        return new SnakeYamlParser(provider.parse(reader).iterator(), reader, properties);
+    /**
+     * Evaluate the queries over the documents read from the reader, reporting
+     * each match to the action once it is final. The reader is closed once the
+     * input has been read in full.
+     */
+    void query(Reader reader, YamlQuery[] queries, BiConsumer<YamlQuery, JsonValue> action) {
+        Objects.requireNonNull(reader, "reader");
+        Objects.requireNonNull(action, "action");
+
+        try (YamlParser<?, ?> parser = createYamlParser(reader)) {
+            new YamlQueryEvaluator(parser, queries.clone(), action).run();
+        }
+    }
+
+    /**
+     * Create a lazy stream of the matches of the query in the documents read
+     * from the reader. The input is read only as far as needed to obtain the
+     * next final match, and closing the stream closes the reader.
+     */
+    Stream<JsonValue> query(Reader reader, YamlQuery query) {
+        Objects.requireNonNull(reader, "reader");
+        Objects.requireNonNull(query, "query");
+
+        YamlParser<?, ?> parser = createYamlParser(reader);
+        Deque<JsonValue> matches = new ArrayDeque<>();
+        YamlQueryEvaluator evaluator = new YamlQueryEvaluator(parser, new YamlQuery[] { query }, (q, value) -> matches.add(value));
+
+        return YamlParser.stream(() -> {
+            while (matches.isEmpty() && evaluator.step()) {
+                // Read until the next match is final or the input ends
+            }
+            return matches.poll();
+        }).onClose(parser::close);
     }
 
     @Override
@@ -140,9 +375,7 @@ class YamlParserFactory implements JsonParserFactory, SettingsBuilder {
 
     @Override
     public JsonParser createParser(InputStream in, Charset charset) {
-        Objects.requireNonNull(in, "in");
-        Objects.requireNonNull(charset, "charset");
-        return createYamlParser(new InputStreamReader(in, charset));
+        return createYamlParser(in, charset);
     }
 
     @Override
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.json.JsonException;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser.Event;
+
+/**
+ * A JSON Pointer (RFC 6901) evaluated against the event stream of a parser.
+ * Only the value referenced is built: the siblings of each object member and
+ * array element on the path are skipped without being built, and no events
+ * are read once the value is complete.
+ * <p>
+ * As when a mapping is read in full, an entry given explicitly in a mapping
+ * takes precedence over an entry with the same key merged into the mapping by
+ * a merge key ({@code <<}), and an earlier merged entry over a later one
+ * (unless merged through fewer merge keys, see
+ * {@link YamlParser#mergeLevel}). A member found from an explicit entry is
+ * therefore final, while a mapping in which a member was found from a merged
+ * entry is read to its end to find any entry with the same key that takes
+ * precedence. When a key is given explicitly more than once (not valid YAML),
+ * its first entry is used.
+ */
+final class YamlPointer {
+
+    private final String pointer;
+    private final String[] tokens;
+
+    YamlPointer(String pointer) {
+        this.pointer = pointer;
+        this.tokens = parse(pointer);
+    }
+
+    static String[] parse(String pointer) {
+        if (pointer.isEmpty()) {
+            return new String[0];
+        }
+
+        if (pointer.charAt(0) != '/') {
+            throw new JsonException("Illegal JSON Pointer, must be empty or begin with '/': " + pointer);
+        }
+
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+
+        for (int i = 1, m = pointer.length(); i < m; i++) {
+            final char c = pointer.charAt(i);
+
+            if (c == '/') {
+                tokens.add(token.toString());
+                token.setLength(0);
+            } else if (c == '~') {
+                final char escaped = i + 1 < m ? pointer.charAt(++i) : 0;
+
+                if (escaped == '0') {
+                    token.append('~');
+                } else if (escaped == '1') {
+                    token.append('/');
+                } else {
+                    throw new JsonException("Illegal JSON Pointer, invalid escape sequence: " + pointer);
+                }
+            } else {
+                token.append(c);
+            }
+        }
+
+        tokens.add(token.toString());
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * Obtain the value referenced by this pointer in the first document read
+     * by the parser.
+     *
+     * @param parser a parser positioned before the first event of a document
+     * @return the value referenced
+     * @throws JsonException if the value does not exist
+     */
+    JsonValue getValue(YamlParser<?, ?> parser) {
+        if (!parser.hasNext()) {
+            throw notFound();
+        }
+
+        final JsonValue value = getValue(parser, parser.next(), 0, false);
+
+        if (value == null) {
+            throw notFound();
+        }
+
+        return value;
+    }
+
+    /**
+     * Obtain the value referenced by the tokens following {@code token}
+     * within the value beginning with the current event.
+     *
+     * @param parser the parser
+     * @param event the current event
+     * @param token index of the first token to resolve
+     * @param complete true when the value must be read to its end, i.e. an
+     *        enclosing mapping is read further once the value is resolved
+     * @return the value referenced, or null if it does not exist
+     */
+    JsonValue getValue(YamlParser<?, ?> parser, Event event, int token, boolean complete) {
+        if (token == tokens.length) {
+            return parser.getValue();
+        }
+
+        JsonValue found = null;
+
+        switch (event) {
+        case START_OBJECT: {
+            // Merge level of the entry found, see class comment
+            int foundLevel = Integer.MAX_VALUE;
+
+            for (Event key = parser.next(); key != Event.END_OBJECT; key = parser.next()) {
+                final int mergeLevel = parser.mergeLevel;
+                final boolean match = mergeLevel < foundLevel && tokens[token].equals(parser.getString());
+                final Event value = parser.next();
+
+                if (!match) {
+                    skip(parser, value);
+                } else if (mergeLevel == 0) {
+                    found = getValue(parser, value, token + 1, complete);
+
+                    if (!complete) {
+                        return found;
+                    }
+
+                    foundLevel = 0;
+                } else {
+                    // Read the remainder of the mapping for an entry taking precedence
+                    found = getValue(parser, value, token + 1, true);
+                    foundLevel = mergeLevel;
+                }
+            }
+            break;
+        }
+
+        case START_ARRAY: {
+            final int index = arrayIndex(tokens[token]);
+            int i = 0;
+
+            for (Event element = parser.next(); element != Event.END_ARRAY; element = parser.next()) {
+                if (i++ != index) {
+                    skip(parser, element);
+                } else {
+                    found = getValue(parser, element, token + 1, complete);
+
+                    if (!complete) {
+                        return found;
+                    }
+                }
+            }
+            break;
+        }
+
+        default:
+            // A scalar has no members or elements
+            break;
+        }
+
+        return found;
+    }
+
+    static void skip(YamlParser<?, ?> parser, Event event) {
+        if (event == Event.START_OBJECT) {
+            parser.skipObject();
+        } else if (event == Event.START_ARRAY) {
+            parser.skipArray();
+        }
+    }
+
+    /**
+     * @return the array index represented by the token, or -1 if the token is
+     *         not a valid index (including {@code -}, the index following the
+     *         last element)
+     */
+    static int arrayIndex(String token) {
+        final int length = token.length();
+
+        if (length == 0 || length > 9 || (length > 1 && token.charAt(0) == '0')) {
+            return -1;
+        }
+
+        int index = 0;
+
+        for (int i = 0; i < length; i++) {
+            final char c = token.charAt(i);
+
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+
+            index = index * 10 + (c - '0');
+        }
+
+        return index;
+    }
+
+    JsonException notFound() {
+        return new JsonException("JSON Pointer references a nonexistent value: '" + pointer + "'");
+    }
+
+    @Override
+    public String toString() {
+        return pointer;
+    }
+}
@@ -21,14 +21,22 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 
+import jakarta.json.JsonArray;
 import jakarta.json.JsonArrayBuilder;
 import jakarta.json.JsonBuilderFactory;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
 import jakarta.json.JsonObjectBuilder;
 import jakarta.json.JsonReader;
 import jakarta.json.JsonReaderFactory;
+import jakarta.json.JsonString;
 import jakarta.json.JsonWriter;
 import jakarta.json.JsonWriterFactory;
 import jakarta.json.spi.JsonProvider;
@@ -39,8 +47,10 @@ import jakarta.json.stream.JsonParserFactory;
 
 /**
  * Extension of {@link JsonProvider} providing access to YAML processing
- * objects. This provider will NOT be made available via the service loader
- * mechanism to avoid conflicts with other JSON providers available.
+ * objects. Values and builders created by this provider are the compact,
+ * immutable implementations also returned by the parsers. This provider will
+ * NOT be made available via the service loader mechanism to avoid conflicts
+ * with other JSON providers available.
  */
 final class YamlProvider extends JsonProvider {
 
@@ -97,6 +107,22 @@ final class YamlProvider extends JsonProvider {
         return defaultReaderFactory.createReader(in);
     }
 
+    YamlDocumentReader createDocumentReader(Reader reader) {
+        return defaultReaderFactory.createDocumentReader(reader);
+    }
+
+    YamlDocumentReader createDocumentReader(InputStream in) {
+        return defaultReaderFactory.createDocumentReader(in);
+    }
+
+    YamlParserFactory defaultParserFactory() {
+        return defaultParserFactory;
+    }
+
+    YamlReaderFactory defaultReaderFactory() {
+        return defaultReaderFactory;
+    }
+
     @Override
     public JsonWriter createWriter(Writer writer) {
         return defaultWriterFactory.createWriter(writer);
@@ -119,17 +145,62 @@ final class YamlProvider extends JsonProvider {
 
     @Override
     public JsonObjectBuilder createObjectBuilder() {
-        throw new UnsupportedOperationException("createObjectBuilder()");
+        return new YamlObjectBuilder();
+    }
+
+    @Override
+    public JsonObjectBuilder createObjectBuilder(JsonObject object) {
+        return new YamlObjectBuilder(object);
     }
 
     @Override
     public JsonArrayBuilder createArrayBuilder() {
-        throw new UnsupportedOperationException("createArrayBuilder()");
+        return new YamlArrayBuilder();
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder(JsonArray array) {
+        return new YamlArrayBuilder(array);
+    }
+
+    @Override
+    public JsonArrayBuilder createArrayBuilder(Collection<?> collection) {
+        return new YamlArrayBuilder(collection);
     }
 
     @Override
     public JsonBuilderFactory createBuilderFactory(Map<String, ?> config) {
-        throw new UnsupportedOperationException("createBuilderFactory(Map)");
+        return new YamlBuilderFactory();
+    }
+
+    @Override
+    public JsonString createValue(String value) {
+        return new YamlString(value);
+    }
+
+    @Override
+    public JsonNumber createValue(int value) {
+        return YamlNumber.of(value);
+    }
+
+    @Override
+    public JsonNumber createValue(long value) {
+        return YamlNumber.of(value);
+    }
+
+    @Override
+    public JsonNumber createValue(double value) {
+        return YamlNumber.of(value);
+    }
+
+    @Override
+    public JsonNumber createValue(BigDecimal value) {
+        return YamlNumber.of(Objects.requireNonNull(value, "value"));
+    }
+
+    @Override
+    public JsonNumber createValue(BigInteger value) {
+        return YamlNumber.of(new BigDecimal(value));
     }
 
 }
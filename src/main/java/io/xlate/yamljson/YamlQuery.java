@@ -0,0 +1,260 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.json.JsonException;
+
+/**
+ * A compiled path query, using a subset of the JSONPath syntax, that selects
+ * values from the documents of a YAML stream. Queries are evaluated in a
+ * single pass over the events of a parser, building only the values selected
+ * and skipping the structures that cannot contain a selected value.
+ * <p>
+ * A query begins with {@code $}, the root of each document, followed by any
+ * number of steps:
+ *
+ * <ul>
+ * <li>{@code .name} or {@code ['name']} - the member of an object with the
+ * given name. Within brackets, the name may also be double-quoted and a quote
+ * or backslash is escaped with a backslash
+ * <li>{@code [n]} - the element of an array with the given (zero-based) index
+ * <li>{@code .*} or {@code [*]} - every member of an object or element of an
+ * array
+ * <li>{@code ..name}, {@code ..['name']}, {@code ..[n]} or {@code ..*} - the
+ * same selections applied to every descendant, at any depth
+ * </ul>
+ *
+ * For example, {@code $.items[*].metadata.name} selects the name of every
+ * item and {@code $..image} selects every member named {@code image}.
+ * <p>
+ * A query may have at most {@value #MAX_STEPS} steps. Instances are immutable
+ * and safe for use by multiple concurrent threads.
+ *
+ * @see Yaml#createQuery(String)
+ * @since 0.2.2
+ */
+public final class YamlQuery {
+
+    /**
+     * The maximum number of steps in a query.
+     */
+    public static final int MAX_STEPS = 63;
+
+    private final String expression;
+    /*
+     * Steps of the query. Each step selects by name (names[i] != null), by
+     * index (indexes[i] >= 0) or any child (wildcard).
+     */
+    private final String[] names;
+    private final int[] indexes;
+    private final boolean[] descendant;
+    /**
+     * State bit set once every step has been matched.
+     */
+    final long matched;
+
+    YamlQuery(String expression) {
+        this.expression = expression;
+
+        List<String> stepNames = new ArrayList<>();
+        List<Integer> stepIndexes = new ArrayList<>();
+        List<Boolean> stepDescendant = new ArrayList<>();
+        parse(expression, stepNames, stepIndexes, stepDescendant);
+
+        final int count = stepNames.size();
+
+        if (count > MAX_STEPS) {
+            throw illegal("more than " + MAX_STEPS + " steps");
+        }
+
+        names = stepNames.toArray(new String[0]);
+        indexes = new int[count];
+        descendant = new boolean[count];
+
+        for (int i = 0; i < count; i++) {
+            indexes[i] = stepIndexes.get(i);
+            descendant[i] = stepDescendant.get(i);
+        }
+
+        matched = 1L << count;
+    }
+
+    void parse(String expression, List<String> stepNames, List<Integer> stepIndexes, List<Boolean> stepDescendant) {
+        final int length = expression.length();
+
+        if (length == 0 || expression.charAt(0) != '$') {
+            throw illegal("must begin with '$'");
+        }
+
+        int i = 1;
+
+        while (i < length) {
+            boolean recursive = false;
+            char c = expression.charAt(i);
+
+            if (c == '.') {
+                if (i + 1 < length && expression.charAt(i + 1) == '.') {
+                    recursive = true;
+                    i++;
+                }
+
+                if (++i == length) {
+                    throw illegal("missing name at end");
+                }
+
+                c = expression.charAt(i);
+
+                if (c == '[' && recursive) {
+                    i = parseBracket(expression, i, stepNames, stepIndexes);
+                } else if (c == '*') {
+                    stepNames.add(null);
+                    stepIndexes.add(-1);
+                    i++;
+                } else {
+                    final int start = i;
+
+                    while (i < length && (c = expression.charAt(i)) != '.' && c != '[') {
+                        i++;
+                    }
+
+                    if (i == start) {
+                        throw illegal("missing name at position " + start);
+                    }
+
+                    stepNames.add(expression.substring(start, i));
+                    stepIndexes.add(-1);
+                }
+            } else if (c == '[') {
+                i = parseBracket(expression, i, stepNames, stepIndexes);
+            } else {
+                throw illegal("unexpected character at position " + i);
+            }
+
+            stepDescendant.add(recursive);
+        }
+    }
+
+    int parseBracket(String expression, int open, List<String> stepNames, List<Integer> stepIndexes) {
+        final int length = expression.length();
+        int i = open + 1;
+        final char c = i < length ? expression.charAt(i) : 0;
+
+        if (c == '*') {
+            stepNames.add(null);
+            stepIndexes.add(-1);
+            i++;
+        } else if (c == '\'' || c == '"') {
+            StringBuilder name = new StringBuilder();
+
+            for (i++; i < length && expression.charAt(i) != c; i++) {
+                char n = expression.charAt(i);
+
+                if (n == '\\' && ++i < length) {
+                    n = expression.charAt(i);
+                }
+
+                name.append(n);
+            }
+
+            if (i++ == length) {
+                throw illegal("unterminated name at position " + open);
+            }
+
+            stepNames.add(name.toString());
+            stepIndexes.add(-1);
+        } else {
+            final int start = i;
+
+            while (i < length && expression.charAt(i) != ']') {
+                i++;
+            }
+
+            final int index = YamlPointer.arrayIndex(expression.substring(start, i));
+
+            if (index < 0) {
+                throw illegal("invalid array index at position " + start);
+            }
+
+            stepNames.add(null);
+            stepIndexes.add(index);
+        }
+
+        if (i == length || expression.charAt(i) != ']') {
+            throw illegal("missing ']' at position " + i);
+        }
+
+        return i + 1;
+    }
+
+    JsonException illegal(String reason) {
+        return new JsonException("Illegal YAML query, " + reason + ": " + expression);
+    }
+
+    /**
+     * Compute the state of a child from the state of its parent. Each bit
+     * {@code i} of a state is set when the first {@code i} steps have been
+     * matched by the node and its ancestors.
+     *
+     * @param state
+     *            the state of the parent
+     * @param key
+     *            the name of the child in an object, or null for an array
+     *            element
+     * @param index
+     *            the index of the child in an array, or -1 for an object
+     *            member
+     * @return the state of the child
+     */
+    long transition(long state, String key, int index) {
+        long result = 0;
+
+        for (long pending = state & ~matched; pending != 0; pending &= pending - 1) {
+            final int i = Long.numberOfTrailingZeros(pending);
+
+            if (descendant[i]) {
+                // Keep searching the descendants of the child
+                result |= 1L << i;
+            }
+
+            if (selects(i, key, index)) {
+                result |= 1L << (i + 1);
+            }
+        }
+
+        return result;
+    }
+
+    boolean selects(int step, String key, int index) {
+        if (names[step] != null) {
+            return names[step].equals(key);
+        }
+        if (indexes[step] >= 0) {
+            return indexes[step] == index;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the expression from which this query was compiled.
+     */
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser.Event;
+
+/**
+ * Evaluates a set of queries in a single pass over the events of a parser.
+ * <p>
+ * The state of each open structure holds, for every query, the set of steps
+ * matched by the structure and its ancestors (see
+ * {@link YamlQuery#transition(long, String, int)}). A child whose state is
+ * empty for every query is skipped without being built. A child matched by a
+ * query is built with {@link YamlParser#getValue()} and reported, and any
+ * further matches within it are found in the value built.
+ * <p>
+ * As when a mapping is read in full, an entry given explicitly in a mapping
+ * takes precedence over an entry with the same key merged into the mapping by
+ * a merge key ({@code <<}), and an earlier merged entry over a later one
+ * (unless merged through fewer merge keys, see
+ * {@link YamlParser#mergeLevel}). A match within an explicit entry is
+ * therefore reported as soon as it is found. A match within a merged entry is
+ * held until the mapping ends, and dropped if an entry with the same key
+ * takes precedence; a merged entry whose key was given by an entry that takes
+ * precedence is skipped. When a key is given explicitly more than once (not
+ * valid YAML), the matches within each entry are reported.
+ */
+final class YamlQueryEvaluator {
+
+    static final class Level {
+        final long[] states;
+        boolean object;
+        int index;
+        /**
+         * Key of the current entry of an object.
+         */
+        String key;
+        /**
+         * Merge level of the current entry of an object.
+         */
+        int mergeLevel;
+        /**
+         * Keys of the entries of an object read so far, with the lowest merge
+         * level of each. Null until the first entry of the first object at
+         * this level.
+         */
+        Map<String, Integer> keys;
+        /**
+         * Matches within the merged entries of an object by key, held until
+         * the object ends. Null until a match is held.
+         */
+        Map<String, List<Match>> held;
+
+        Level(int queryCount) {
+            states = new long[queryCount];
+        }
+    }
+
+    static final class Match {
+        final YamlQuery query;
+        final JsonValue value;
+
+        Match(YamlQuery query, JsonValue value) {
+            this.query = query;
+            this.value = value;
+        }
+    }
+
+    final YamlParser<?, ?> parser;
+    final YamlQuery[] queries;
+    final BiConsumer<YamlQuery, JsonValue> action;
+
+    Level[] levels = new Level[8];
+    int depth = -1;
+
+    YamlQueryEvaluator(YamlParser<?, ?> parser, YamlQuery[] queries, BiConsumer<YamlQuery, JsonValue> action) {
+        this.parser = parser;
+        this.queries = queries;
+        this.action = action;
+    }
+
+    void run() {
+        while (step()) {
+            // Matches are reported to the action as they complete
+        }
+    }
+
+    /**
+     * Read the next entry of the innermost open structure, or the next
+     * document when no structure is open.
+     *
+     * @return false when the input has been read in full
+     */
+    boolean step() {
+        if (depth < 0) {
+            if (!parser.hasNext()) {
+                return false;
+            }
+
+            final Level root = level(0);
+
+            for (int q = 0; q < queries.length; q++) {
+                root.states[q] = 1L;
+            }
+
+            value(parser.next(), root);
+        } else if (levels[depth].object) {
+            stepObject(levels[depth]);
+        } else {
+            stepArray(levels[depth]);
+        }
+
+        return true;
+    }
+
+    void stepObject(Level level) {
+        if (parser.next() == Event.END_OBJECT) {
+            final Map<String, List<Match>> held = level.held;
+            level.held = null;
+            depth--;
+
+            if (held != null) {
+                for (List<Match> matches : held.values()) {
+                    for (Match match : matches) {
+                        report(match.query, match.value);
+                    }
+                }
+            }
+            return;
+        }
+
+        final String key = parser.getString();
+        final int mergeLevel = parser.mergeLevel;
+
+        if (level.keys == null) {
+            level.keys = new HashMap<>();
+        }
+
+        final Integer previous = level.keys.get(key);
+
+        if (previous != null) {
+            if (mergeLevel > 0 && previous <= mergeLevel) {
+                // An earlier entry takes precedence, see class comment
+                skip(parser.next());
+                return;
+            }
+
+            if (previous > mergeLevel && level.held != null) {
+                // The matches within an earlier merged entry are replaced
+                level.held.remove(key);
+            }
+        }
+
+        level.keys.put(key, mergeLevel);
+        level.key = key;
+        level.mergeLevel = mergeLevel;
+
+        final Level child = level(depth + 1);
+        transition(level.states, key, -1, child.states);
+        value(parser.next(), child);
+    }
+
+    void stepArray(Level level) {
+        final Event event = parser.next();
+
+        if (event == Event.END_ARRAY) {
+            depth--;
+            return;
+        }
+
+        final Level child = level(depth + 1);
+        transition(level.states, null, level.index++, child.states);
+        value(event, child);
+    }
+
+    /**
+     * Handle the value beginning with the current event, given the states of
+     * the value held by the next level.
+     */
+    void value(Event event, Level target) {
+        if (isMatched(target.states)) {
+            evaluate(parser.getValue(), target.states);
+        } else if (event == Event.START_OBJECT || event == Event.START_ARRAY) {
+            if (isEmpty(target.states)) {
+                skip(event);
+            } else {
+                target.object = event == Event.START_OBJECT;
+                target.index = 0;
+                target.key = null;
+                target.mergeLevel = 0;
+                target.held = null;
+
+                if (target.keys != null) {
+                    target.keys.clear();
+                }
+                depth++;
+            }
+        }
+    }
+
+    void skip(Event event) {
+        if (event == Event.START_OBJECT) {
+            parser.skipObject();
+        } else if (event == Event.START_ARRAY) {
+            parser.skipArray();
+        }
+    }
+
+    /**
+     * Report the value to the queries it matches, then evaluate its children.
+     */
+    void evaluate(JsonValue value, long[] states) {
+        boolean pending = false;
+
+        for (int q = 0; q < queries.length; q++) {
+            final long matched = queries[q].matched;
+
+            if ((states[q] & matched) != 0) {
+                report(queries[q], value);
+            }
+
+            pending |= (states[q] & ~matched) != 0;
+        }
+
+        if (!pending) {
+            return;
+        }
+
+        if (value instanceof JsonObject) {
+            for (Map.Entry<String, JsonValue> entry : ((JsonObject) value).entrySet()) {
+                evaluateChild(entry.getValue(), states, entry.getKey(), -1);
+            }
+        } else if (value instanceof JsonArray) {
+            final JsonArray array = (JsonArray) value;
+
+            for (int i = 0, m = array.size(); i < m; i++) {
+                evaluateChild(array.get(i), states, null, i);
+            }
+        }
+    }
+
+    /**
+     * Report a match to the action, or hold it in the innermost open object
+     * whose current entry is a merged entry until the object ends.
+     */
+    void report(YamlQuery query, JsonValue value) {
+        for (int d = depth; d >= 0; d--) {
+            final Level level = levels[d];
+
+            if (level.object && level.mergeLevel > 0) {
+                if (level.held == null) {
+                    level.held = new LinkedHashMap<>();
+                }
+                level.held.computeIfAbsent(level.key, k -> new ArrayList<>()).add(new Match(query, value));
+                return;
+            }
+        }
+
+        action.accept(query, value);
+    }
+
+    void evaluateChild(JsonValue child, long[] states, String key, int index) {
+        long[] childStates = new long[queries.length];
+        transition(states, key, index, childStates);
+
+        if (!isEmpty(childStates)) {
+            evaluate(child, childStates);
+        }
+    }
+
+    void transition(long[] states, String key, int index, long[] result) {
+        for (int q = 0; q < queries.length; q++) {
+            result[q] = queries[q].transition(states[q], key, index);
+        }
+    }
+
+    boolean isMatched(long[] states) {
+        for (int q = 0; q < queries.length; q++) {
+            if ((states[q] & queries[q].matched) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isEmpty(long[] states) {
+        for (long state : states) {
+            if (state != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Level level(int index) {
+        if (index == levels.length) {
+            levels = Arrays.copyOf(levels, index << 1);
+        }
+
+        Level level = levels[index];
+
+        if (level == null) {
+            level = new Level(queries.length);
+            levels[index] = level;
+        }
+
+        return level;
+    }
+}
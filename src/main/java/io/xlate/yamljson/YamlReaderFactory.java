@@ -16,18 +16,22 @@
 package io.xlate.yamljson;
 
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import jakarta.json.JsonReader;
 import jakarta.json.JsonReaderFactory;
+import jakarta.json.JsonValue;
 
 class YamlReaderFactory implements JsonReaderFactory, SettingsBuilder {
 
-    private final YamlParserFactory parserFactory;
+    final YamlParserFactory parserFactory;
 
     YamlReaderFactory(YamlParserFactory parserFactory) {
         this.parserFactory = parserFactory;
@@ -57,7 +61,36 @@ class YamlReaderFactory implements JsonReaderFactory, SettingsBuilder {
     public JsonReader createReader(InputStream in, Charset charset) {
         Objects.requireNonNull(in, "in");
         Objects.requireNonNull(charset, "charset");
-        return createReader(new InputStreamReader(in, charset));
+        return new YamlReader(parserFactory.createYamlParser(in, charset));
+    }
+
+    JsonReader createReader(ByteBuffer buffer) {
+        return new YamlReader(parserFactory.createYamlParser(buffer));
+    }
+
+    JsonReader createReader(Path path) {
+        return new YamlReader(parserFactory.createYamlParser(path));
+    }
+
+    YamlDocumentReader createDocumentReader(Reader reader) {
+        Objects.requireNonNull(reader, "reader");
+        return new YamlDocuments(parserFactory.createYamlParser(reader));
+    }
+
+    YamlDocumentReader createDocumentReader(InputStream in) {
+        Objects.requireNonNull(in, "in");
+        return new YamlDocuments(parserFactory.createYamlParser(in));
+    }
+
+    Stream<JsonValue> streamDocuments(ByteBuffer buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        YamlDocumentSpliterator documents = new YamlDocumentSpliterator(parserFactory, buffer);
+        return StreamSupport.stream(documents, false).onClose(documents::close);
+    }
+
+    Stream<JsonValue> streamDocuments(Path path) {
+        Objects.requireNonNull(path, "path");
+        return streamDocuments(YamlParserFactory.readFile(path));
     }
 
     @Override
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
+
+/**
+ * Support for the compact, immutable {@link JsonValue} implementations of
+ * this library: {@link YamlObject}, {@link YamlArray}, {@link YamlString} and
+ * {@link YamlNumber}.
+ */
+final class YamlValues {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private YamlValues() {
+    }
+
+    /**
+     * Convert a Java object to a JsonValue as done by
+     * {@link jakarta.json.spi.JsonProvider#createObjectBuilder(Map)}.
+     */
+    static JsonValue toJsonValue(Object value) {
+        if (value == null) {
+            return JsonValue.NULL;
+        }
+        if (value instanceof JsonValue) {
+            return (JsonValue) value;
+        }
+        if (value instanceof String) {
+            return new YamlString((String) value);
+        }
+        if (value instanceof Boolean) {
+            return ((Boolean) value).booleanValue() ? JsonValue.TRUE : JsonValue.FALSE;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return YamlNumber.of(((Number) value).longValue());
+        }
+        if (value instanceof BigDecimal) {
+            return YamlNumber.of((BigDecimal) value);
+        }
+        if (value instanceof BigInteger) {
+            return YamlNumber.of(new BigDecimal((BigInteger) value));
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return YamlNumber.of(((Number) value).doubleValue());
+        }
+        if (value instanceof JsonObjectBuilder) {
+            return ((JsonObjectBuilder) value).build();
+        }
+        if (value instanceof JsonArrayBuilder) {
+            return ((JsonArrayBuilder) value).build();
+        }
+        if (value instanceof Map) {
+            return new YamlObjectBuilder((Map<?, ?>) value).build();
+        }
+        if (value instanceof Collection) {
+            return new YamlArrayBuilder((Collection<?>) value).build();
+        }
+        throw new IllegalArgumentException("Type not supported: " + value.getClass());
+    }
+
+    static String toString(JsonValue value) {
+        StringBuilder json = new StringBuilder();
+        appendJson(json, value);
+        return json.toString();
+    }
+
+    /**
+     * Append the JSON text of a value, without whitespace between tokens.
+     */
+    static void appendJson(StringBuilder json, JsonValue value) {
+        switch (value.getValueType()) {
+        case OBJECT: {
+            json.append('{');
+            boolean first = true;
+
+            for (Map.Entry<String, JsonValue> entry : ((JsonObject) value).entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                appendQuoted(json, entry.getKey());
+                json.append(':');
+                appendJson(json, entry.getValue());
+                first = false;
+            }
+
+            json.append('}');
+            break;
+        }
+        case ARRAY: {
+            json.append('[');
+            boolean first = true;
+
+            for (JsonValue element : (JsonArray) value) {
+                if (!first) {
+                    json.append(',');
+                }
+                appendJson(json, element);
+                first = false;
+            }
+
+            json.append(']');
+            break;
+        }
+        case STRING:
+            appendQuoted(json, ((jakarta.json.JsonString) value).getString());
+            break;
+        default:
+            json.append(value.toString());
+            break;
+        }
+    }
+
+    /**
+     * Append a string as a quoted JSON string, escaping quotation marks,
+     * reverse solidi and control characters as required by RFC 8259.
+     */
+    static void appendQuoted(StringBuilder json, String value) {
+        json.append('"');
+
+        final int length = value.length();
+        int plain = 0;
+
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+
+            json.append(value, plain, i);
+            plain = i + 1;
+
+            switch (c) {
+            case '"':
+            case '\\':
+                json.append('\\').append(c);
+                break;
+            case '\b':
+                json.append("\\b");
+                break;
+            case '\f':
+                json.append("\\f");
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            case '\r':
+                json.append("\\r");
+                break;
+            case '\t':
+                json.append("\\t");
+                break;
+            default:
+                json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                break;
+            }
+        }
+
+        json.append(value, plain, length).append('"');
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Utf8ReaderTest {
+
+    static final String TEXT = "key: value\nnäme: 日本語 😀 café\n";
+
+    static Reader reader(byte[] bytes, int chunk) {
+        return new Utf8Reader(new ChunkedInputStream(bytes, chunk), in -> new InputStreamReader(in, StandardCharsets.UTF_16));
+    }
+
+    static String readFully(Reader reader, int bufferSize) throws IOException {
+        StringBuilder result = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+
+        for (int n; (n = reader.read(buffer, 0, bufferSize)) >= 0;) {
+            result.append(buffer, 0, n);
+        }
+
+        return result.toString();
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "1, 1", "1, 7", "3, 2", "5, 1024", "100000, 1", "100000, 1024" })
+    void testDecodeAcrossChunksAndBuffers(int chunk, int bufferSize) throws IOException {
+        String text = TEXT.repeat(5000);
+        assertEquals(text, readFully(reader(text.getBytes(StandardCharsets.UTF_8), chunk), bufferSize));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "heap", "slice", "direct" })
+    void testDecodeFromBuffer(String type) throws IOException {
+        String text = TEXT.repeat(5000);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer;
+
+        if ("direct".equals(type)) {
+            buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        } else if ("slice".equals(type)) {
+            buffer = ByteBuffer.allocate(bytes.length + 6).position(3).slice().put(bytes).flip();
+        } else {
+            buffer = ByteBuffer.wrap(bytes);
+        }
+
+        assertEquals(text, readFully(new Utf8Reader(buffer, null), 1000));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testMalformedInputReportedFromBuffer() {
+        Reader reader = new Utf8Reader(ByteBuffer.wrap(new byte[] { 'a', (byte) 0xE6, (byte) 0x97 }), null);
+        assertThrows(MalformedInputException.class, () -> readFully(reader, 8));
+    }
+
+    @Test
+    void testByteOrderMarkSkipped() throws IOException {
+        byte[] bom = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+        byte[] text = TEXT.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[bom.length + text.length];
+        System.arraycopy(bom, 0, bytes, 0, bom.length);
+        System.arraycopy(text, 0, bytes, bom.length, text.length);
+
+        assertEquals(TEXT, readFully(reader(bytes, 1), 64));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "UTF-16BE", "UTF-16LE" })
+    void testUtf16ReadByFallback(String charsetName) throws IOException {
+        Charset charset = Charset.forName(charsetName);
+        byte[] bytes = ("\uFEFF" + TEXT).getBytes(charset);
+
+        assertEquals(TEXT, readFully(reader(bytes, 2), 64));
+    }
+
+    @Test
+    void testShortInput() throws IOException {
+        assertEquals("", readFully(reader(new byte[0], 1), 8));
+        assertEquals("a", readFully(reader(new byte[] { 'a' }, 1), 8));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "C3",          // Truncated at end of input
+        "C0 80",       // Overlong
+        "80",          // Unexpected continuation
+        "E0 80 80",    // Overlong
+        "ED A0 80",    // Surrogate
+        "F4 90 80 80", // Beyond U+10FFFF
+        "F8 80 80 80", // Invalid leading byte
+        "E6 97 41",    // Missing continuation
+    })
+    void testMalformedInputReported(String hex) {
+        String[] values = hex.split(" ");
+        byte[] bytes = new byte[values.length + 1];
+        bytes[0] = 'a';
+
+        for (int i = 0; i < values.length; i++) {
+            bytes[i + 1] = (byte) Integer.parseInt(values[i], 16);
+        }
+
+        Reader reader = reader(bytes, 1);
+        assertThrows(MalformedInputException.class, () -> readFully(reader, 8));
+    }
+
+    static final class ChunkedInputStream extends InputStream {
+        final byte[] bytes;
+        final int chunk;
+        int position;
+
+        ChunkedInputStream(byte[] bytes, int chunk) {
+            this.bytes = bytes;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read() {
+            return position < bytes.length ? bytes[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position == bytes.length) {
+                return -1;
+            }
+
+            int n = Math.min(Math.min(len, chunk), bytes.length - position);
+            System.arraycopy(bytes, position, b, off, n);
+            position += n;
+            return n;
+        }
+    }
+}
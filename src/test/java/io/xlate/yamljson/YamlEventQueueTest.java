@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.NoSuchElementException;
+
+import jakarta.json.stream.JsonParser.Event;
+
+import org.junit.jupiter.api.Test;
+
+class YamlEventQueueTest {
+
+    @Test
+    void testAddLastPreservesOrderAcrossGrowth() {
+        YamlEventQueue<String> queue = new YamlEventQueue<>(4);
+
+        for (int i = 0; i < 100; i++) {
+            queue.addLast("e" + i, Event.VALUE_NUMBER, YamlParser.NumberType.INTEGER, String.valueOf(i));
+        }
+
+        assertEquals(100, queue.size());
+        assertEquals(128, queue.capacity());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("e" + i, queue.yamlEvent());
+            assertEquals(String.valueOf(i), queue.value());
+            assertEquals(Event.VALUE_NUMBER, queue.jsonEvent());
+            assertEquals(YamlParser.NumberType.INTEGER, queue.numberType());
+            queue.remove();
+        }
+
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testWrappedQueueGrows() {
+        YamlEventQueue<String> queue = new YamlEventQueue<>(4);
+
+        // Advance the head so that subsequent slots wrap to the start of the arrays
+        for (int i = 0; i < 3; i++) {
+            queue.addLast("skip", Event.VALUE_NULL, YamlParser.NumberType.NONE, "");
+            queue.remove();
+        }
+
+        for (int i = 0; i < 10; i++) {
+            queue.addLast("a" + i, Event.VALUE_STRING, YamlParser.NumberType.NONE, "v" + i);
+        }
+
+        assertEquals(16, queue.capacity());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("a" + i, queue.yamlEvent());
+            assertEquals("v" + i, queue.value());
+            queue.remove();
+        }
+
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void testEmptyQueueAccessThrows() {
+        YamlEventQueue<String> queue = new YamlEventQueue<>();
+        assertThrows(NoSuchElementException.class, queue::yamlEvent);
+        assertThrows(NoSuchElementException.class, queue::remove);
+    }
+}
@@ -28,20 +28,40 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
 import jakarta.json.JsonException;
 import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonString;
+import jakarta.json.JsonStructure;
+import jakarta.json.JsonValue;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonCollectors;
 import jakarta.json.stream.JsonLocation;
 import jakarta.json.stream.JsonParser;
 import jakarta.json.stream.JsonParser.Event;
+import jakarta.json.stream.JsonParserFactory;
 import jakarta.json.stream.JsonParsingException;
 
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -72,10 +92,22 @@ class YamlParserTest {
         "Test integer      , ---%nkey: 10%n   , 3, true, 10",
         "Test integer (+)  , ---%nkey: +10%n  , 3, true, 10",
         "Test integer (-)  , ---%nkey: -10%n  , 3, true, -10",
+        "Test long max     , ---%nkey: 9223372036854775807%n , 3, true, 9223372036854775807",
+        "Test long min     , ---%nkey: -9223372036854775808%n, 3, true, -9223372036854775808",
+        "Test octal (long) , ---%nkey: 0o777777777777777777777%n, 3, true, 9223372036854775807",
+        "Test big integer  , ---%nkey: 18446744073709551616%n, 3, true, 18446744073709551616",
+        "Test big negative , ---%nkey: -9223372036854775809%n, 3, true, -9223372036854775809",
+        "Test big hex      , ---%nkey: 0xFFFFFFFFFFFFFFFFFF%n, 3, true, 4722366482869645213695",
+        "Test big octal    , ---%nkey: 0o1000000000000000000000%n, 3, true, 9223372036854775808",
+        "Test zero-led hex , ---%nkey: 0x00000000000000000007fffffffffffffff%n, 3, true, 9223372036854775807",
         "Test simple float , ---%nkey: 1.0%n  , 3, false, 1.0",
         "Test leading float, ---%nkey: .101%n  , 3, false, 0.101",
         "Test (E)xp float  , ---%nkey: -1E-5%n, 3, false, -0.00001",
         "Test (e)xp float  , ---%nkey: -1e-5%n, 3, false, -0.00001",
+        "Test signed float , ---%nkey: +1.5%n , 3, false, 1.5",
+        "Test (E+)xp float , ---%nkey: 1E+2%n , 3, false, 1E+2",
+        "Test trailing dot , ---%nkey: 12.%n  , 3, true, 12",
+        "Test long float   , ---%nkey: 3.14159265358979323846264%n, 3, false, 3.14159265358979323846264",
     })
     void testFiniteNumbers(String label, String yaml, int nextCalls, boolean integral, BigDecimal expected) {
         testEachVersion(version -> {
@@ -99,6 +131,25 @@ class YamlParserTest {
         });
     }
 
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testNumberValueAvailableAfterHasNextAndThroughAlias(String version) {
+        String yaml = String.format("---%nkey1: &num 1.5e2%nkey2: *num%n");
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml))) {
+            assertEquals(Event.VALUE_NUMBER, seekEvent(parser, 3));
+            assertTrue(parser.hasNext());
+            assertEquals(0, new BigDecimal("150").compareTo(parser.getBigDecimal()));
+            assertEquals(150L, parser.getLong());
+
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Event.VALUE_NUMBER, parser.next());
+            assertEquals("1.5e2", parser.getString());
+            assertFalse(parser.isIntegralNumber());
+            assertEquals(150, parser.getInt());
+        }
+    }
+
     @ParameterizedTest
     @CsvSource({
         "Test infinity    , ---%nkey: .inf%n , 3, .inf",
@@ -160,6 +211,9 @@ class YamlParserTest {
         "Test too many signs            , ---%nkey: -.00e-5+6%n , 3, -.00e-5+6",
         "Test too many decimal points   , ---%nkey: -.00.6%n , 3, -.00.6",
         "Test decimal point in exponent , ---%nkey: 1e1.6%n , 3, 1e1.6",
+        "Test missing exponent digits   , ---%nkey: 1e+%n , 3, 1e+",
+        "Test lone decimal point        , ---%nkey: .%n , 3, .",
+        "Test lone sign                 , ---%nkey: +%n , 3, +",
         "Test looks like octal or hex   , ---%nkey: 0Nether hex nor octal%n, 3, 0Nether hex nor octal",
         "Test too short for hexadecimal , ---%nkey: 0x%n, 3, 0x",
         "Test bad hexadecimal characters, ---%nkey: 0x0Z, 3, 0x0Z",
@@ -292,242 +346,1479 @@ class YamlParserTest {
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testGetObject(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
-             JsonParser parser = createParser(version, source)) {
-            assertEquals(Event.START_OBJECT, parser.next());
-            JsonObject value = parser.getObject();
-            assertEquals(Json.createObjectBuilder()
-                .add("key1", "value1")
-                .add("key2", Json.createArrayBuilder()
-                    .add(Json.createArrayBuilder()
-                        .add(Json.createArrayBuilder()
-                            .add("ary1_1_1")
-                            .add("ary1_1_2")
-                            .add("ary1_1_3")
-                        )
-                        .add("ary1_2")
-                        .add(Json.createObjectBuilder()
-                            .add("ary1_3", Json.createObjectBuilder()
-                                .add("ary1_3_k1", "ary1_3_v1")))
-                    )
-                )
-                .build(),
-                value);
+    void testAliasExpansionSizeMemoized(String version) throws IOException {
+        String yaml = String.format(""
+                + "---%n"
+                + "a: &a [ x, y ]%n"
+                + "b: &b { k1: *a, k2: [ *a, z ] }%n"
+                + "c: &c [ *b, *b, *a ]%n");
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml))) {
+            parser.next();
+            parser.getObject();
+            Map<String, YamlParser.AnchorMetadata> anchors = ((YamlParser<?, ?>) parser).anchors;
+            assertEquals(2, anchors.get("a").expansionSize);
+            // Keys k1 and k2 are counted along with the values
+            assertEquals(7, anchors.get("b").expansionSize);
+            assertEquals(16, anchors.get("c").expansionSize);
         }
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testGetObjectWithInvalidContext(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
-             JsonParser parser = createParser(version, source)) {
-            assertThrows(IllegalStateException.class, parser::getObject);
+    void testAliasExpansionSizeSaturatesAtLimit(String version) throws IOException {
+        Map<String, Object> properties = Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.LOAD_MAX_ALIAS_EXPANSION_SIZE, 1_000L);
+
+        try (InputStream source = new ByteArrayInputStream("[ ]".getBytes());
+                JsonParser parser = createParser(source, properties)) {
+            YamlParser<?, ?> yamlParser = (YamlParser<?, ?>) parser;
+            assertEquals(999, yamlParser.addExpansionSize(998, 1));
+            assertEquals(1_000, yamlParser.addExpansionSize(999, 10));
+            assertEquals(1_000, yamlParser.addExpansionSize(1_000, Long.MAX_VALUE));
         }
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testSkipObjectEntirely(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
-             JsonParser parser = createParser(version, source)) {
-            assertEquals(Event.START_OBJECT, parser.next());
-            parser.skipObject();
-            assertEquals(Event.END_OBJECT, parser.currentEvent());
-            assertFalse(parser.hasNext());
+    void testReplayedAliasUsesAnchorPrecedingIt(String version) throws IOException {
+        String yaml = String.format(""
+                + "---%n"
+                + "a: &x one%n"
+                + "b: &y [ *x, { *x : v } ]%n"
+                + "c: &x two%n"
+                + "d: *y%n");
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml))) {
+            parser.next();
+            JsonObject value = parser.getObject();
+            JsonArray expected = Json.createArrayBuilder()
+                    .add("one")
+                    .add(Json.createObjectBuilder().add("one", "v"))
+                    .build();
+
+            assertEquals(expected, value.getJsonArray("b"));
+            assertEquals(expected, value.getJsonArray("d"));
+            assertEquals("two", value.getString("c"));
+            assertTrue(((YamlParser<?, ?>) parser).replayStack.isEmpty());
         }
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testSkipObjectFromFirstValue(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
-             JsonParser parser = createParser(version, source)) {
+    void testMergeKeyWithEmptyAnchor(String version) throws IOException {
+        String yaml = String.format(""
+                + "---%n"
+                + "base: &base {}%n"
+                + "derived:%n"
+                + "  <<: *base%n"
+                + "  key: value%n");
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml))) {
+            parser.next();
+            assertEquals(Json.createObjectBuilder()
+                    .add("base", JsonValue.EMPTY_JSON_OBJECT)
+                    .add("derived", Json.createObjectBuilder().add("key", "value"))
+                    .build(),
+                parser.getObject());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testAnchorsReleasedAtDocumentEnd(String version) throws IOException {
+        String yaml = String.format(""
+                + "---%n"
+                + "a: &x [ 1, 2, 3 ]%n"
+                + "b: *x%n"
+                + "---%n"
+                + "c: *x%n");
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml))) {
+            parser.next();
+            parser.skipObject();
+            assertEquals(5, Yaml.anchoredEventCount(parser));
+
             assertEquals(Event.START_OBJECT, parser.next());
+            assertEquals(0, Yaml.anchoredEventCount(parser));
             assertEquals(Event.KEY_NAME, parser.next());
-            assertEquals(Event.VALUE_STRING, parser.next());
 
-            parser.skipObject();
-            assertEquals(Event.END_OBJECT, parser.currentEvent());
-            assertFalse(parser.hasNext());
+            JsonException thrown = assertThrows(JsonException.class, parser::next);
+            assertEquals("Encountered alias of missing anchor", thrown.getCause().getMessage());
         }
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testSkipObjectWithoutObjectContext(String version) throws IOException {
-        try (InputStream source = new ByteArrayInputStream(String.format("---%n- entry1%n- entry2%n- entry3%n").getBytes());
-             JsonParser parser = createParser(version, source)) {
-            assertEquals(Event.START_ARRAY, parser.next());
-            parser.skipObject();
-            assertEquals(Event.START_ARRAY, parser.currentEvent());
-            assertEquals(Event.VALUE_STRING, parser.next());
-            assertEquals("entry1", parser.getString());
-            parser.skipObject();
-            assertEquals(Event.VALUE_STRING, parser.next());
-            assertEquals("entry2", parser.getString());
-            parser.skipObject();
-            assertEquals(Event.VALUE_STRING, parser.next());
-            assertEquals("entry3", parser.getString());
-            parser.skipObject();
-            assertEquals(Event.END_ARRAY, parser.next());
-            parser.skipObject();
-            assertEquals(Event.END_ARRAY, parser.currentEvent());
-            assertFalse(parser.hasNext());
+    void testMaxAnchoredEventsExceeded(String version) throws IOException {
+        Map<String, Object> properties = Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.LOAD_MAX_ANCHORED_EVENTS, 4L);
+        String yaml = String.format(""
+                + "---%n"
+                + "a: &x [ 1, 2 ]%n"
+                + "b: &y [ 1, 2, 3 ]%n");
+
+        try (InputStream source = new ByteArrayInputStream(yaml.getBytes());
+                JsonParser parser = createParser(source, properties)) {
+            JsonParsingException thrown = assertThrows(JsonParsingException.class, () -> readFully(parser));
+            assertEquals("Anchored events exceed the maximum retained: 4", thrown.getMessage());
+            assertEquals(3, thrown.getLocation().getLineNumber());
         }
     }
 
+    @Test
+    void testAnchoredEventCountRequiresYamlParser() {
+        JsonParser parser = Mockito.mock(JsonParser.class);
+        assertThrows(IllegalArgumentException.class, () -> Yaml.anchoredEventCount(parser));
+    }
+
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testSkipObjectFromNestedMap(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
-             JsonParser parser = createParser(version, source)) {
-            boolean conditionMet = false;
-            while (parser.hasNext()) {
-                if (parser.next() == Event.KEY_NAME && "ary1_3_k1".equals(parser.getString())) {
-                    conditionMet = true;
-                    parser.skipObject();
-                    assertEquals(Event.END_OBJECT, parser.currentEvent());
-                    assertEquals(Event.END_OBJECT, parser.next());
-                    assertEquals(Event.END_ARRAY, parser.next());
-                    assertEquals(Event.END_ARRAY, parser.next());
-                    assertEquals(Event.END_OBJECT, parser.next());
-                    assertFalse(parser.hasNext());
-                    break;
-                }
+    void testStringCacheCanonicalizesKeyNames(String version) throws IOException {
+        JsonParserFactory factory = Yaml.createParserFactory(Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.LOAD_STRING_CACHE_SIZE, 64,
+            Yaml.Settings.LOAD_STRING_CACHE_MAX_VALUE_LENGTH, 6));
+        String yaml = String.format(""
+                + "---%n"
+                + "- { name: first, policy: Always, description: longer value }%n"
+                + "- { name: second, policy: Always, description: longer value }%n");
+
+        try (JsonParser parser = factory.createParser(new StringReader(yaml))) {
+            parser.next();
+            JsonArray value = parser.getArray();
+            String[] keys0 = value.getJsonObject(0).keySet().toArray(new String[0]);
+            String[] keys1 = value.getJsonObject(1).keySet().toArray(new String[0]);
+
+            for (int i = 0; i < keys0.length; i++) {
+                assertEquals(keys0[i], keys1[i]);
+                assertTrue(keys0[i] == keys1[i], keys0[i]);
             }
-            assertTrue(conditionMet);
+
+            assertTrue(value.getJsonObject(0).getString("policy") == value.getJsonObject(1).getString("policy"));
+            assertFalse(value.getJsonObject(0).getString("description") == value.getJsonObject(1).getString("description"));
         }
+
+        Yaml.CacheStatistics statistics = Yaml.stringCacheStatistics(factory);
+        // 3 keys and "Always" are repeated, others are only seen once
+        assertEquals(4, statistics.getHits());
+        assertEquals(6, statistics.getMisses());
+        assertEquals(0.4, statistics.getHitRate(), 0.0001);
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testGetArray(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
-             JsonParser parser = createParser(version, source)) {
+    void testStringCacheDisabledByDefault(String version) throws IOException {
+        JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
 
-            assertEquals(Event.START_OBJECT, parser.next());
+        try (JsonParser parser = factory.createParser(new StringReader("[ { key: a }, { key: b } ]"))) {
+            readFully(parser);
+        }
 
-            assertEquals(Event.KEY_NAME, parser.next());
-            assertEquals(Event.VALUE_STRING, parser.next());
+        Yaml.CacheStatistics statistics = Yaml.stringCacheStatistics(factory);
+        assertEquals(0, statistics.getHits());
+        assertEquals(0, statistics.getMisses());
+        assertEquals(0, statistics.getHitRate());
+    }
+
+    @Test
+    void testStringCacheEvictsCollidingEntry() {
+        StringCache cache = new StringCache(1);
+        assertEquals(2, cache.capacity());
 
+        String a = new String("Aa");
+        String b = new String("BB"); // Same hash code as "Aa"
+
+        assertTrue(a == cache.canonicalize(a));
+        assertTrue(a == cache.canonicalize(new String("Aa")));
+        assertTrue(b == cache.canonicalize(b));
+        assertTrue(b == cache.canonicalize(new String("BB")));
+
+        Yaml.CacheStatistics statistics = cache.statistics();
+        assertEquals(2, statistics.getHits());
+        assertEquals(2, statistics.getMisses());
+        assertEquals(1, statistics.getEvictions());
+    }
+
+    static JsonParserFactory pooledFactory(String version, int size, int maxCapacity) {
+        return Yaml.createParserFactory(Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.LOAD_BUFFER_POOL_SIZE, size,
+            Yaml.Settings.LOAD_BUFFER_POOL_MAX_CAPACITY, maxCapacity));
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testBufferPoolReusesBuffers(String version) {
+        JsonParserFactory factory = pooledFactory(version, 2, 1024);
+
+        for (int i = 0; i < 3; i++) {
+            byte[] yaml = ("{ id: " + i + ", tags: [ a, b ] }").getBytes(StandardCharsets.UTF_8);
+
+            try (JsonParser parser = factory.createParser(new ByteArrayInputStream(yaml))) {
+                parser.next();
+                assertEquals(i, parser.getObject().getInt("id"));
+            }
+        }
+
+        Yaml.CacheStatistics statistics = Yaml.bufferPoolStatistics(factory);
+        assertEquals(2, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(0, statistics.getEvictions());
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testBufferPoolDoesNotLeakParserState(String version) {
+        JsonParserFactory factory = pooledFactory(version, 1, 1024);
+        String yaml = String.format(""
+                + "base: &b { x: 1 }%n"
+                + "merged:%n"
+                + "  <<: *b%n"
+                + "  nested: [ [ 1, 2 ], [ 3 ] ]%n");
+
+        // Closed within an anchor, a merge and nested sequences
+        try (JsonParser parser = factory.createParser(new StringReader(yaml))) {
+            while (parser.next() != Event.VALUE_NUMBER || parser.getInt() != 2) {
+                // Read to the second number of the nested sequence
+            }
+        }
+
+        try (JsonParser parser = factory.createParser(new StringReader("{ key: *b }"))) {
+            assertEquals(Event.START_OBJECT, parser.next());
             assertEquals(Event.KEY_NAME, parser.next());
-            assertEquals(Event.START_ARRAY, parser.next());
+            JsonException thrown = assertThrows(JsonException.class, parser::next);
+            assertEquals("Encountered alias of missing anchor", thrown.getCause().getMessage());
+        }
 
+        try (JsonParser parser = factory.createParser(new StringReader("[ &m { a: 1 }, { <<: *m, b: [ 2 ] } ]"))) {
+            parser.next();
             JsonArray value = parser.getArray();
-            assertEquals(Json.createArrayBuilder()
-                .add(Json.createArrayBuilder()
-                    .add(Json.createArrayBuilder()
-                        .add("ary1_1_1")
-                        .add("ary1_1_2")
-                        .add("ary1_1_3")
-                    )
-                    .add("ary1_2")
-                    .add(Json.createObjectBuilder()
-                        .add("ary1_3", Json.createObjectBuilder()
-                            .add("ary1_3_k1", "ary1_3_v1")))
-                )
-                .build(),
-                value);
+            assertEquals(Json.createObjectBuilder().add("a", 1).add("b", Json.createArrayBuilder().add(2)).build(), value.get(1));
+            assertEquals(4, Yaml.anchoredEventCount(parser));
         }
+
+        assertEquals(2, Yaml.bufferPoolStatistics(factory).getHits());
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testGetArrayWithInvalidContext(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
-             JsonParser parser = createParser(version, source)) {
-            assertThrows(IllegalStateException.class, parser::getArray);
+    void testBufferPoolDiscardsGrownBuffers(String version) {
+        JsonParserFactory factory = pooledFactory(version, 1, 64);
+        String large = IntStream.range(0, 100).mapToObj(Integer::toString).collect(Collectors.joining(", ", "[ ", " ]"));
+
+        try (JsonParser parser = factory.createParser(new StringReader(large))) {
+            parser.next();
+            assertEquals(100, parser.getArray().size());
         }
+        try (JsonParser parser = factory.createParser(new StringReader("[ 1 ]"))) {
+            readFully(parser);
+        }
+
+        Yaml.CacheStatistics statistics = Yaml.bufferPoolStatistics(factory);
+        assertEquals(0, statistics.getHits());
+        assertEquals(2, statistics.getMisses());
+        assertEquals(1, statistics.getEvictions());
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testGetValueKeyName(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
-             JsonParser parser = createParser(version, source)) {
+    void testBufferPoolDiscardsGrownStacks(String version) {
+        JsonParserFactory factory = pooledFactory(version, 1, 64);
 
-            assertEquals(Event.START_OBJECT, parser.next());
+        try (JsonParser parser = factory.createParser(new StringReader("[".repeat(100) + "]".repeat(100)))) {
+            readFully(parser);
+        }
+        try (JsonParser parser = factory.createParser(new StringReader("[ 1 ]"))) {
+            readFully(parser);
+        }
 
-            assertEquals(Event.KEY_NAME, parser.next());
-            assertEquals(Json.createValue("key1"), parser.getValue());
-            assertEquals(Event.VALUE_STRING, parser.next());
+        Yaml.CacheStatistics statistics = Yaml.bufferPoolStatistics(factory);
+        assertEquals(0, statistics.getHits());
+        assertEquals(1, statistics.getEvictions());
+    }
 
-            assertEquals(Event.KEY_NAME, parser.next());
-            assertEquals(Json.createValue("key2"), parser.getValue());
+    @Test
+    void testBufferCapacityIncludesStacks() {
+        ParserBuffers buffers = new ParserBuffers(null);
+
+        for (int i = 0; i < 100; i++) {
+            buffers.replayStack.push(i, i + 1, null, false);
+        }
+        assertTrue(buffers.capacity() >= 100);
+
+        for (int i = 0; i < 200; i++) {
+            buffers.nesting.push(true);
         }
+        assertTrue(buffers.capacity() >= 200);
+
+        buffers.structureStarts = new int[300];
+        assertTrue(buffers.capacity() >= 300);
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testSkipArrayFromNestedSequence(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
-             JsonParser parser = createParser(version, source)) {
-            boolean conditionMet = false;
-            while (parser.hasNext()) {
-                if (parser.next() == Event.VALUE_STRING && "ary1_1_2".equals(parser.getString())) {
-                    conditionMet = true;
-                    parser.skipArray();
-                    assertEquals(Event.END_ARRAY, parser.currentEvent());
+    void testBufferPoolDisabledByDefault(String version) {
+        JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
 
-                    parser.skipArray();
-                    assertEquals(Event.END_ARRAY, parser.currentEvent());
+        try (JsonParser parser = factory.createParser(new StringReader("[ 1 ]"))) {
+            readFully(parser);
+        }
 
-                    parser.skipArray();
-                    assertEquals(Event.END_ARRAY, parser.currentEvent());
+        Yaml.CacheStatistics statistics = Yaml.bufferPoolStatistics(factory);
+        assertEquals(0, statistics.getHits());
+        assertEquals(0, statistics.getMisses());
+    }
 
-                    assertEquals(Event.END_OBJECT, parser.next());
-                    assertFalse(parser.hasNext());
-                    break;
-                }
-            }
-            assertTrue(conditionMet);
-        }
+    @Test
+    void testBufferPoolEvictsWhenFull() {
+        ParserBufferPool pool = new ParserBufferPool(1, 1024);
+        ParserBuffers first = pool.borrow();
+        ParserBuffers second = pool.borrow();
+
+        first.release();
+        second.release();
+        assertEquals(1, pool.idleCount());
+        assertTrue(first == pool.borrow());
+
+        Yaml.CacheStatistics statistics = pool.statistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(2, statistics.getMisses());
+        assertEquals(1, statistics.getEvictions());
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testMergeKeyWithOverrides(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/merge-key.yaml");
-             JsonParser parser = createParser(version, source)) {
-            parser.next();
-            JsonObject value = parser.getObject();
-            assertEquals(
-                Json.createObjectBuilder()
-                    .add("key1", "value1")
-                    .add("key2", Json.createObjectBuilder()
-                        .add("key2_1", "value2_1")
-                        .add("key2_2", "value2_2")
-                        .add("key2_3", "value2_3")
-                    )
-                    .add("key3", "value3")
-                    .add("key4", Json.createObjectBuilder()
-                        .add("key2_1", "value2_1")
-                        .add("key2_2", "value2_2")
-                        .add("key2_3", "value2_3_override_by_key4")
-                        .add("key4_1", "value4_1")
-                    )
-                    .add("key5", Json.createObjectBuilder()
-                        .add("key2_1", "value2_1")
-                        .add("key2_2", "value2_2")
-                        .add("key2_3", "value2_3_override_by_key4")
-                        .add("key4_1", "value4_1_override_by_key5")
-                        .add("key5_1", "value5_1")
-                    )
-                    .build(),
-                value
-            );
+    void testClosedParserFailsWhileBuffersInUse(String version) {
+        JsonParserFactory factory = pooledFactory(version, 1, 1024);
+        JsonParser closed = factory.createParser(new StringReader("[ [ 1, 2 ], [ 3 ] ]"));
+        assertEquals(Event.START_ARRAY, closed.next());
+        assertEquals(Event.START_ARRAY, closed.next());
+        closed.close();
+
+        try (JsonParser active = factory.createParser(new StringReader("{ a: [ 1, 2 ], b: { c: 3 } }"))) {
+            assertEquals(Event.START_OBJECT, active.next());
+            assertEquals(Event.KEY_NAME, active.next());
+
+            for (Executable use : List.<Executable>of(closed::hasNext, closed::next, closed::getValue, closed::getArray, closed::skipArray)) {
+                IllegalStateException thrown = assertThrows(IllegalStateException.class, use);
+                assertEquals("Parser has been closed", thrown.getMessage());
+            }
+
+            assertEquals(Event.START_ARRAY, active.next());
+            assertEquals(Json.createArrayBuilder().add(1).add(2).build(), active.getArray());
+            assertEquals(Event.KEY_NAME, active.next());
+            assertEquals(Event.START_OBJECT, active.next());
+            assertEquals(Json.createObjectBuilder().add("c", 3).build(), active.getObject());
+            assertEquals(Event.END_OBJECT, active.next());
+            assertFalse(active.hasNext());
         }
+
+        assertEquals(1, Yaml.bufferPoolStatistics(factory).getHits());
     }
 
     @ParameterizedTest
     @MethodSource(VERSIONS_SOURCE)
-    void testMergeKeyWithInvalidSequenceAlias(String version) throws IOException {
-        try (InputStream source = getClass().getResourceAsStream("/merge-key-invalid.yaml");
-                JsonParser parser = createParser(version, source)) {
+    void testResetParserDiscardsState(String version) throws IOException {
+        String yaml = String.format(""
+                + "base: &b { x: 1 }%n"
+                + "merged:%n"
+                + "  <<: *b%n"
+                + "  nested: [ [ 1, 2 ], [ 3 ] ]%n");
+        StringReader first = new StringReader(yaml);
+
+        try (JsonParser parser = createParser(version, first)) {
+            while (parser.next() != Event.VALUE_NUMBER || parser.getInt() != 2) {
+                // Read to the second number of the nested sequence
+            }
+
+            assertTrue(parser == Yaml.resetParser(parser, new StringReader("{ key: *b }")));
+            assertThrows(IOException.class, first::read);
+            assertEquals(Event.START_OBJECT, parser.next());
+            assertEquals(1, parser.getLocation().getLineNumber());
+            assertEquals(Event.KEY_NAME, parser.next());
+            JsonException thrown = assertThrows(JsonException.class, parser::next);
+            assertEquals("Encountered alias of missing anchor", thrown.getCause().getMessage());
+
+            Yaml.resetParser(parser, new ByteArrayInputStream("[ &m { a: 1 }, { <<: *m, b: [ 2 ] } ]".getBytes(StandardCharsets.UTF_8)));
+            assertEquals(Event.START_ARRAY, parser.next());
+            assertEquals(Event.START_OBJECT, parser.next());
+            assertEquals(Json.createObjectBuilder().add("a", 1).build(), parser.getObject());
+            Yaml.resetParser(parser, new StringReader("[ 1, [ 2 ] ]"));
+            assertEquals(0, Yaml.anchoredEventCount(parser));
+            parser.next();
+            assertEquals(Json.createArrayBuilder().add(1).add(Json.createArrayBuilder().add(2)).build(), parser.getArray());
+            assertFalse(parser.hasNext());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testResetParserRetainsPooledBuffers(String version) {
+        JsonParserFactory factory = pooledFactory(version, 1, 1024);
+
+        try (JsonParser parser = factory.createParser(new StringReader("{ a: 1 }"))) {
+            for (int i = 0; i < 3; i++) {
+                Yaml.resetParser(parser, new StringReader("{ id: " + i + " }"));
+                parser.next();
+                assertEquals(i, parser.getObject().getInt("id"));
+            }
+        }
+
+        Yaml.CacheStatistics statistics = Yaml.bufferPoolStatistics(factory);
+        assertEquals(0, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(0, statistics.getEvictions());
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testResetClosedParserFails(String version) {
+        JsonParser parser = createParser(version, new StringReader("[ 1 ]"));
+        parser.close();
+        Reader reader = new StringReader("[ 2 ]");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> Yaml.resetParser(parser, reader));
+        assertEquals("Parser has been closed", thrown.getMessage());
+    }
+
+    @Test
+    void testResetParserRequiresYamlParser() {
+        JsonParser parser = Mockito.mock(JsonParser.class);
+        Reader reader = new StringReader("[ 1 ]");
+        assertThrows(IllegalArgumentException.class, () -> Yaml.resetParser(parser, reader));
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testLocationWithoutMarkSnippets(String version) {
+        String yaml = "a: 1\nbb: [ 2,\n  3 ]\nc:\n  d: x\n";
+        // Line, column and offset of each event
+        long[][] expected = {
+            { 1, 1, 0 }, // START_OBJECT
+            { 1, 1, 0 }, // a
+            { 1, 4, 3 }, // 1
+            { 2, 1, 5 }, // bb
+            { 2, 5, 9 }, // START_ARRAY
+            { 2, 7, 11 }, // 2
+            { 3, 3, 16 }, // 3
+            { 3, 5, 18 }, // END_ARRAY
+            { 4, 1, 20 }, // c
+            { 5, 3, 25 }, // START_OBJECT
+            { 5, 3, 25 }, // d
+            { 5, 6, 28 }, // x
+        };
+
+        for (boolean markSnippets : new boolean[] { true, false }) {
+            Map<String, Object> properties = Map.of(
+                Yaml.Settings.YAML_VERSION, version,
+                Yaml.Settings.LOAD_MARK_SNIPPETS, markSnippets);
+
+            try (JsonParser parser = Yaml.createParserFactory(properties).createParser(new StringReader(yaml))) {
+                for (long[] location : expected) {
+                    Event event = parser.next();
+                    JsonLocation actual = parser.getLocation();
+                    String message = event + " with markSnippets=" + markSnippets;
+                    assertEquals(location[0], actual.getLineNumber(), message);
+                    assertEquals(location[1], actual.getColumnNumber(), message);
+                    assertEquals(location[2], actual.getStreamOffset(), message);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testErrorLocationWithoutMarkSnippets(String version) {
+        Map<String, Object> properties = Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.LOAD_MARK_SNIPPETS, false,
+            Yaml.Settings.LOAD_MAX_NESTING_DEPTH, 3);
+        String yaml = String.format(""
+                + "---%n"
+                + "key1: value1%n"
+                + "key2: [ [ [ 1 ] ] ]%n");
+
+        try (JsonParser parser = Yaml.createParserFactory(properties).createParser(new StringReader(yaml))) {
+            JsonParsingException thrown = assertThrows(JsonParsingException.class, () -> readFully(parser));
+            assertEquals("Maximum nesting depth exceeded: 3", thrown.getMessage());
+            assertEquals(3, thrown.getLocation().getLineNumber());
+        }
+
+        try (JsonParser parser = Yaml.createParserFactory(properties).createParser(new StringReader("key: [ 1, ]]"))) {
+            JsonParsingException thrown = assertThrows(JsonParsingException.class, () -> readFully(parser));
+            assertEquals(1, thrown.getLocation().getLineNumber());
+
+            if (Yaml.Versions.V1_1.equals(version)) {
+                // Marks without a buffer still describe the position of the error
+                assertTrue(thrown.getCause().getMessage().contains("line 1"), thrown.getCause().getMessage());
+            }
+        }
+    }
+
+    static String nestedFlowDocument(int depth) {
+        StringBuilder yaml = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            yaml.append(i % 2 == 0 ? "[ " : "{ k: ");
+        }
+        yaml.append("leaf");
+        for (int i = depth - 1; i >= 0; i--) {
+            yaml.append(i % 2 == 0 ? " ]" : " }");
+        }
+        return yaml.toString();
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testDeepNestingBeyondFormerLimit(String version) {
+        String yaml = nestedFlowDocument(500);
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml))) {
+            int maxDepth = 0;
+            int depth = 0;
+
+            while (parser.hasNext()) {
+                switch (parser.next()) {
+                case START_ARRAY:
+                case START_OBJECT:
+                    maxDepth = Math.max(maxDepth, ++depth);
+                    break;
+                case END_ARRAY:
+                case END_OBJECT:
+                    depth--;
+                    break;
+                default:
+                    break;
+                }
+            }
+
+            assertEquals(500, maxDepth);
+            assertEquals(0, depth);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testMaxNestingDepthExceeded(String version) {
+        Map<String, Object> properties = Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.LOAD_MAX_NESTING_DEPTH, 10);
+        String yaml = nestedFlowDocument(11);
+
+        try (JsonParser parser = Yaml.createParserFactory(properties).createParser(new StringReader(yaml))) {
+            JsonParsingException thrown = assertThrows(JsonParsingException.class, () -> readFully(parser));
+            assertEquals("Maximum nesting depth exceeded: 10", thrown.getMessage());
+            assertEquals(1, thrown.getLocation().getLineNumber());
+        }
+
+        try (JsonParser parser = Yaml.createParserFactory(properties).createParser(new StringReader(nestedFlowDocument(10)))) {
+            readFully(parser);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testSkipArrayInsideObjectInsideArray(String version) {
+        try (JsonParser parser = createParser(version, new StringReader("[ [ 1, { a: [ 2, 3 ], b: 4 }, 5 ], 6 ]"))) {
+            assertEquals(Event.START_ARRAY, parser.next());
+            assertEquals(Event.START_ARRAY, parser.next());
+            assertEquals(Event.VALUE_NUMBER, parser.next());
+            assertEquals(Event.START_OBJECT, parser.next());
+            assertEquals(Event.KEY_NAME, parser.next());
+            // Skips the remainder of the array enclosing the object
+            parser.skipArray();
+            assertEquals(Event.END_ARRAY, parser.currentEvent());
+            assertEquals(Event.VALUE_NUMBER, parser.next());
+            assertEquals(6, parser.getInt());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetObject(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
+             JsonParser parser = createParser(version, source)) {
+            assertEquals(Event.START_OBJECT, parser.next());
+            JsonObject value = parser.getObject();
+            assertEquals(Json.createObjectBuilder()
+                .add("key1", "value1")
+                .add("key2", Json.createArrayBuilder()
+                    .add(Json.createArrayBuilder()
+                        .add(Json.createArrayBuilder()
+                            .add("ary1_1_1")
+                            .add("ary1_1_2")
+                            .add("ary1_1_3")
+                        )
+                        .add("ary1_2")
+                        .add(Json.createObjectBuilder()
+                            .add("ary1_3", Json.createObjectBuilder()
+                                .add("ary1_3_k1", "ary1_3_v1")))
+                    )
+                )
+                .build(),
+                value);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetValueBuildsCompactValues(String version) {
+        StringBuilder yaml = new StringBuilder(String.format("base: &b { k0: v0, k1: 1 }%nlarge:%n  <<: *b%n"));
+        JsonObjectBuilder expected = Json.createObjectBuilder().add("k0", "v0").add("k1", 1);
+
+        for (int i = 1; i < 20; i++) {
+            yaml.append(String.format("  k%d: [ %d, 0x%x, %d.5, 123456789012345678901234567890, null ]%n", i, i, i, i));
+            expected.add("k" + i, Json.createArrayBuilder()
+                         .add(i)
+                         .add(i)
+                         .add(new BigDecimal(i + ".5"))
+                         .add(new BigDecimal("123456789012345678901234567890"))
+                         .addNull());
+        }
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml.toString()))) {
+            assertEquals(Event.START_OBJECT, parser.next());
+            JsonObject value = parser.getObject();
+
+            assertTrue(value instanceof YamlObject);
+            assertTrue(value.get("large").asJsonObject().get("k1") instanceof YamlArray);
+            assertEquals(expected.build(), value.getJsonObject("large"));
+            assertEquals(20, value.getJsonObject("large").size());
+        }
+    }
+
+    static final String POINTER_DOCUMENT = ""
+            + "defaults: &d { policy: Always, grace: 30 }%n"
+            + "items:%n"
+            + "- name: first%n"
+            + "  spec: { <<: *d, grace: 10, ports: [ 80, 443 ] }%n"
+            + "- name: second%n"
+            + "  spec:%n"
+            + "    <<: *d%n"
+            + "    containers: [ { image: 'app:1', env: { a/b: 1, m~n: 2 } } ]%n"
+            + "empty: {}%n";
+
+    @ParameterizedTest
+    @CsvSource({
+        "''",
+        "/defaults",
+        "/items/0/name",
+        "/items/0/spec",
+        "/items/0/spec/grace",
+        "/items/0/spec/policy",
+        "/items/0/spec/ports/1",
+        "/items/1/spec/containers/0/image",
+        "/items/1/spec/containers/0/env/a~1b",
+        "/items/1/spec/containers/0/env/m~0n",
+        "/items/1/spec/grace",
+        "/empty",
+    })
+    void testReadValueMatchesPointerOfDocument(String pointer) {
+        testEachVersion(version -> {
+            JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+            JsonValue document;
+
+            try (JsonParser parser = factory.createParser(new StringReader(String.format(POINTER_DOCUMENT)))) {
+                parser.next();
+                document = parser.getValue();
+            }
+
+            JsonValue expected = Json.createPointer(pointer).getValue((JsonStructure) document);
+            assertEquals(expected, Yaml.readValue(factory, new StringReader(String.format(POINTER_DOCUMENT)), pointer));
+            assertEquals(expected, Yaml.readValue(factory, new StringReader(String.format(POINTER_DOCUMENT)), Json.createPointer(pointer)));
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/missing",
+        "/items/2",
+        "/items/-",
+        "/items/01",
+        "/items/name",
+        "/items/0/name/x",
+        "/empty/x",
+        "/items/0/spec/missing",
+    })
+    void testReadValueNotFound(String pointer) {
+        testEachVersion(version -> {
+            JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+            Reader reader = new StringReader(String.format(POINTER_DOCUMENT));
+            JsonException thrown = assertThrows(JsonException.class, () -> Yaml.readValue(factory, reader, pointer));
+            assertEquals("JSON Pointer references a nonexistent value: '" + pointer + "'", thrown.getMessage());
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "no-slash", "/bad~2escape", "/trailing~" })
+    void testReadValueInvalidPointer(String pointer) {
+        Reader reader = new StringReader("key: value");
+        assertThrows(JsonException.class, () -> Yaml.readValue(reader, pointer));
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testReadValueStopsAtTarget(String version) {
+        JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+        String yaml = String.format("a: { b: [ 1, 2 ] }%nskipped: [ x, y ]%nc: value%nbase: &b { m: 1 }%n<<: *b%n");
+        StringBuilder invalidTail = new StringBuilder(yaml);
+
+        for (int i = 0; i < 1000; i++) {
+            invalidTail.append(String.format("k%d: v%n", i));
+        }
+
+        invalidTail.append("invalid: [ unterminated");
+
+        assertEquals(Json.createValue(2), Yaml.readValue(factory, new StringReader(invalidTail.toString()), "/a/b/1"));
+        assertEquals(Json.createValue("value"), Yaml.readValue(factory, new StringReader(invalidTail.toString()), "/c"));
+        // A later explicit entry would take precedence over a merged entry
+        assertThrows(JsonParsingException.class, () -> Yaml.readValue(factory, new StringReader(invalidTail.toString()), "/m"));
+        assertThrows(JsonParsingException.class, () -> Yaml.readValue(factory, new StringReader(invalidTail.toString()), "/invalid"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "/b/x, 1",
+        "/b/y, 3",
+        "/b/z, 1",
+        "/c/x, 4",
+        "/c/z, 1",
+        "/d/k/n, 5",
+        "/e/0, 8",
+        "/g/x, 7",
+        "/g/z, 1",
+    })
+    void testReadValuePrefersExplicitEntries(String pointer, String expected) {
+        String yaml = String.format("a: &a { x: 2, z: 1 }%n"
+                + "b: { x: 1, <<: *a, y: 3 }%n"
+                + "c: { <<: *a, x: 4 }%n"
+                + "d: { k: { n: 5 }, k: { n: 6 } }%n"
+                + "e: [ 8 ]%n"
+                + "e: [ 9 ]%n"
+                + "f: &f { <<: *a, x: 7 }%n"
+                + "g: { <<: *f }%n");
+
+        testEachVersion(version -> {
+            JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+            assertEquals(Json.createValue(Integer.parseInt(expected)), Yaml.readValue(factory, new StringReader(yaml), pointer));
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "/b/k/n", "/c/k/n" })
+    void testReadValueNotFoundInExplicitEntry(String pointer) {
+        String yaml = String.format("a: &a { k: { n: 5 } }%n"
+                + "b: { <<: *a, k: { m: 6 } }%n"
+                + "c: { k: { m: 6 }, <<: *a }%n");
+
+        testEachVersion(version -> {
+            JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+            assertThrows(JsonException.class, () -> Yaml.readValue(factory, new StringReader(yaml), pointer));
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "UTF-8, false", "UTF-8, true", "UTF-16BE, true", "UTF-16LE, true" })
+    void testInputStreamEncodingDetected(String charsetName, boolean byteOrderMark) {
+        String yaml = String.format("%skey: näme%nlist: [ 日本語, 😀 ]%n", byteOrderMark ? "\uFEFF" : "");
+        byte[] bytes = yaml.getBytes(Charset.forName(charsetName));
+        JsonObject expected = Json.createObjectBuilder()
+                .add("key", "näme")
+                .add("list", Json.createArrayBuilder().add("日本語").add("😀"))
+                .build();
+
+        testEachVersion(version -> {
+            try (JsonParser parser = createParser(version, new ByteArrayInputStream(bytes))) {
+                parser.next();
+                assertEquals(expected, parser.getObject());
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "UTF-8", "UTF-16LE", "ISO-8859-1" })
+    void testInputStreamWithCharset(String charsetName) {
+        Charset charset = Charset.forName(charsetName);
+        byte[] bytes = String.format("key: café%n").getBytes(charset);
+
+        testEachVersion(version -> {
+            JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+
+            try (JsonParser parser = factory.createParser(new ByteArrayInputStream(bytes), charset)) {
+                parser.next();
+                assertEquals(Json.createObjectBuilder().add("key", "café").build(), parser.getObject());
+            }
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testInputStreamMalformedUtf8(String version) {
+        byte[] bytes = { 'k', 'e', 'y', ':', ' ', (byte) 0xC3, '\n' };
+
+        try (JsonParser parser = createParser(version, new ByteArrayInputStream(bytes))) {
+            JsonException thrown = assertThrows(JsonException.class, () -> readFully(parser));
+            assertEquals(MalformedInputException.class, thrown.getCause().getClass());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testInputStreamWithUtf8CharsetDecodedAsReader(String version) {
+        JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+        byte[] malformed = { 'k', 'e', 'y', ':', ' ', (byte) 0xC3, '\n' };
+
+        try (JsonParser parser = factory.createParser(new ByteArrayInputStream(malformed), StandardCharsets.UTF_8)) {
+            parser.next();
+            assertEquals(Json.createObjectBuilder().add("key", "\uFFFD").build(), parser.getObject());
+        }
+
+        byte[] byteOrderMark = "\uFEFFkey: value\n".getBytes(StandardCharsets.UTF_8);
+        JsonValue expected;
+
+        try (JsonParser parser = factory.createParser(new InputStreamReader(new ByteArrayInputStream(byteOrderMark), StandardCharsets.UTF_8))) {
+            parser.next();
+            expected = parser.getValue();
+        }
+
+        try (JsonParser parser = factory.createParser(new ByteArrayInputStream(byteOrderMark), StandardCharsets.UTF_8)) {
+            parser.next();
+            assertEquals(expected, parser.getValue());
+        }
+    }
+
+    static final String QUERY_DOCUMENTS = ""
+            + "defaults: &d { policy: Always, grace: 30 }%n"
+            + "items:%n"
+            + "- metadata: { name: first }%n"
+            + "  spec: { <<: *d, grace: 10, containers: [ { image: 'a:1' }, { image: 'b:1', sidecar: { image: 'c:1' } } ] }%n"
+            + "- metadata: { name: second }%n"
+            + "  spec:%n"
+            + "    containers: [ { image: 'd:1' } ]%n"
+            + "---%n"
+            + "items:%n"
+            + "- metadata: { name: third }%n";
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "$.items[*].metadata.name             | [ \"first\", \"second\", \"third\" ]",
+        "$..image                             | [ \"a:1\", \"b:1\", \"c:1\", \"d:1\" ]",
+        "$.items[1].spec.containers[0].image  | [ \"d:1\" ]",
+        "$['defaults'].*                      | [ \"Always\", 30 ]",
+        "$..spec.grace                        | [ 10 ]",
+        "$.items[0][\"spec\"].policy          | [ \"Always\" ]",
+        "$..[0].metadata                      | [ { \"name\": \"first\" }, { \"name\": \"third\" } ]",
+        "$..*..sidecar['image']               | [ \"c:1\" ]",
+        "$.items[2]                           | [ ]",
+        "$.defaults[0]                        | [ ]",
+    })
+    void testQueryMatches(String expression, String expected) {
+        testEachVersion(version -> {
+            JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+            YamlQuery query = Yaml.createQuery(expression);
+            JsonArray result;
+
+            try (var matches = Yaml.query(factory, new StringReader(String.format(QUERY_DOCUMENTS)), query)) {
+                result = matches.collect(JsonCollectors.toJsonArray());
+            }
+
+            assertEquals(Json.createReader(new StringReader(expected)).readArray(), result);
+        });
+    }
+
+    @Test
+    void testQueryRootMatchesEachDocument() {
+        YamlQuery query = Yaml.createQuery("$");
+        List<JsonValue> documents = Yaml.query(new StringReader("a: 1\n---\n- b\n"), query).collect(Collectors.toList());
+        assertEquals(List.of(Json.createObjectBuilder().add("a", 1).build(), Json.createArrayBuilder().add("b").build()), documents);
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testQueryMultipleInSinglePass(String version) {
+        JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+        YamlQuery names = Yaml.createQuery("$.items[*].metadata.name");
+        YamlQuery images = Yaml.createQuery("$..image");
+        YamlQuery allNames = Yaml.createQuery("$..name");
+        List<String> matches = new ArrayList<>();
+
+        Yaml.query(factory,
+                   new StringReader(String.format(QUERY_DOCUMENTS)),
+                   (query, value) -> matches.add(query + "=" + ((JsonString) value).getString()),
+                   names, images, allNames);
+
+        assertEquals(List.of(
+            "$.items[*].metadata.name=first", "$..name=first",
+            "$..image=a:1", "$..image=b:1", "$..image=c:1",
+            "$.items[*].metadata.name=second", "$..name=second",
+            "$..image=d:1",
+            "$.items[*].metadata.name=third", "$..name=third"), matches);
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testQueryStreamReadsOnlyToNextMatch(String version) {
+        JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+        // Matches within a top-level sequence are final as each element ends
+        String yaml = String.format("- { name: a }%n- { name: b }%n- invalid: [ unterminated");
+        YamlQuery query = Yaml.createQuery("$[*].name");
+
+        try (var matches = Yaml.query(factory, new StringReader(yaml), query)) {
+            assertEquals(List.of(Json.createValue("a"), Json.createValue("b")), matches.limit(2).collect(Collectors.toList()));
+        }
+
+        try (var matches = Yaml.query(factory, new StringReader(yaml), query)) {
+            assertThrows(JsonParsingException.class, () -> matches.collect(Collectors.toList()));
+        }
+
+        // Matches within explicit entries are final when found, before the mapping ends
+        String list = String.format("kind: List%nitems:%n- { name: a }%n- { name: b }%n- invalid: [ unterminated");
+
+        try (var matches = Yaml.query(factory, new StringReader(list), Yaml.createQuery("$.items[*].name"))) {
+            assertEquals(List.of(Json.createValue("a"), Json.createValue("b")), matches.limit(2).collect(Collectors.toList()));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "$.b.x     | [ 1 ]",
+        "$.b.*     | [ 1, 3, { \"v\": 5 } ]",
+        "$.c.x     | [ 4 ]",
+        "$.c.*     | [ 4, 1, { \"v\": 5 } ]",
+        "$..x      | [ 2, 1, 4 ]",
+        "$..v      | [ 5, 5, 5 ]",
+        "$.d.k.n   | [ 5, 6 ]",
+        "$.d.*     | [ { \"n\": 5 }, 7, { \"n\": 6 } ]",
+    })
+    void testQueryPrefersExplicitEntries(String expression, String expected) {
+        String yaml = String.format(""
+                + "a: &a { x: 2, w: { v: 5 } }%n"
+                + "b: { x: 1, <<: *a, y: 3 }%n"
+                + "c: { <<: *a, x: 4, z: 1 }%n"
+                + "d: { k: { n: 5 }, j: 7, k: { n: 6 } }%n");
+
+        testEachVersion(version -> {
+            JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+            JsonValue document;
+
+            try (JsonParser parser = factory.createParser(new StringReader(yaml))) {
+                parser.next();
+                document = parser.getValue();
+            }
+
+            try (var matches = Yaml.query(factory, new StringReader(yaml), Yaml.createQuery(expression))) {
+                assertEquals(Json.createReader(new StringReader(expected)).readArray(), matches.collect(JsonCollectors.toJsonArray()));
+            }
+
+            // Agrees with the document read in full
+            JsonObject w = Json.createObjectBuilder().add("v", 5).build();
+            assertEquals(Json.createObjectBuilder().add("x", 1).add("w", w).add("y", 3).build(), document.asJsonObject().get("b"));
+            assertEquals(Json.createObjectBuilder().add("x", 4).add("w", w).add("z", 1).build(), document.asJsonObject().get("c"));
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "''", "items", "$.", "$..", "$.a..", "$[", "$[01]", "$[-1]", "$['a'", "$['a']x", "$[*", "$.a[b]" })
+    void testQueryInvalidExpression(String expression) {
+        JsonException thrown = assertThrows(JsonException.class, () -> Yaml.createQuery(expression));
+        assertTrue(thrown.getMessage().startsWith("Illegal YAML query"));
+        assertTrue(thrown.getMessage().endsWith(": " + expression));
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetObjectUsesConfiguredJsonProvider(String version) {
+        JsonProvider provider = Mockito.spy(JsonProvider.provider());
+        Map<String, Object> properties = Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.JSON_PROVIDER, provider);
+        JsonParserFactory factory = Yaml.createParserFactory(properties);
+
+        for (int i = 0; i < 2; i++) {
+            try (JsonParser parser = factory.createParser(new StringReader("key: value"))) {
+                assertEquals(Event.START_OBJECT, parser.next());
+                assertEquals(Json.createObjectBuilder().add("key", "value").build(), parser.getObject());
+            }
+        }
+
+        Mockito.verify(provider, Mockito.times(2)).createObjectBuilder();
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetObjectWithInvalidContext(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
+             JsonParser parser = createParser(version, source)) {
+            assertThrows(IllegalStateException.class, parser::getObject);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testSkipObjectEntirely(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
+             JsonParser parser = createParser(version, source)) {
+            assertEquals(Event.START_OBJECT, parser.next());
+            parser.skipObject();
+            assertEquals(Event.END_OBJECT, parser.currentEvent());
+            assertFalse(parser.hasNext());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testSkipObjectFromFirstValue(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
+             JsonParser parser = createParser(version, source)) {
+            assertEquals(Event.START_OBJECT, parser.next());
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Event.VALUE_STRING, parser.next());
+
+            parser.skipObject();
+            assertEquals(Event.END_OBJECT, parser.currentEvent());
+            assertFalse(parser.hasNext());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testSkipObjectWithoutObjectContext(String version) throws IOException {
+        try (InputStream source = new ByteArrayInputStream(String.format("---%n- entry1%n- entry2%n- entry3%n").getBytes());
+             JsonParser parser = createParser(version, source)) {
+            assertEquals(Event.START_ARRAY, parser.next());
+            parser.skipObject();
+            assertEquals(Event.START_ARRAY, parser.currentEvent());
+            assertEquals(Event.VALUE_STRING, parser.next());
+            assertEquals("entry1", parser.getString());
+            parser.skipObject();
+            assertEquals(Event.VALUE_STRING, parser.next());
+            assertEquals("entry2", parser.getString());
+            parser.skipObject();
+            assertEquals(Event.VALUE_STRING, parser.next());
+            assertEquals("entry3", parser.getString());
+            parser.skipObject();
+            assertEquals(Event.END_ARRAY, parser.next());
+            parser.skipObject();
+            assertEquals(Event.END_ARRAY, parser.currentEvent());
+            assertFalse(parser.hasNext());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testSkipObjectRecordsAnchors(String version) throws IOException {
+        String yaml = ""
+                + "skipped:%n"
+                + "  x: &n 0x1F%n"
+                + "  y: [ &s { k: true, v: ~ } ]%n"
+                + "  z: -.inf%n"
+                + "after: [ *n, *s, 1.5 ]%n";
+
+        try (JsonParser parser = createParser(version, new StringReader(String.format(yaml)))) {
+            assertEquals(Event.START_OBJECT, parser.next());
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Event.START_OBJECT, parser.next());
+            parser.skipObject();
+            assertEquals(Event.END_OBJECT, parser.currentEvent());
+
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals("after", parser.getString());
+            assertEquals(Event.START_ARRAY, parser.next());
+            assertEquals(Json.createArrayBuilder()
+                             .add(31)
+                             .add(Json.createObjectBuilder().add("k", true).addNull("v"))
+                             .add(1.5)
+                             .build(),
+                         parser.getArray());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testSkipObjectDoesNotExpandAliases(String version) throws IOException {
+        Map<String, Object> properties = Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.LOAD_MAX_ALIAS_EXPANSION_SIZE, 4L);
+        String yaml = ""
+                + "big: &b [ 1, 2, 3, 4 ]%n"
+                + "skipped: { x: *b, y: [ *b, *b ] }%n"
+                + "after: *b%n";
+
+        try (JsonParser parser = createParser(new ByteArrayInputStream(String.format(yaml).getBytes()), properties)) {
+            assertEquals(Event.START_OBJECT, parser.next());
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Event.START_ARRAY, parser.next());
+            parser.skipArray();
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Event.START_OBJECT, parser.next());
+            parser.skipObject();
+            assertEquals(Event.END_OBJECT, parser.currentEvent());
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals("after", parser.getString());
+
+            JsonException thrown = assertThrows(JsonException.class, parser::next);
+            assertEquals("Alias 'b' expands to too many scalars: 4", thrown.getMessage());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testSkipObjectFromNestedMap(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
+             JsonParser parser = createParser(version, source)) {
+            boolean conditionMet = false;
+            while (parser.hasNext()) {
+                if (parser.next() == Event.KEY_NAME && "ary1_3_k1".equals(parser.getString())) {
+                    conditionMet = true;
+                    parser.skipObject();
+                    assertEquals(Event.END_OBJECT, parser.currentEvent());
+                    assertEquals(Event.END_OBJECT, parser.next());
+                    assertEquals(Event.END_ARRAY, parser.next());
+                    assertEquals(Event.END_ARRAY, parser.next());
+                    assertEquals(Event.END_OBJECT, parser.next());
+                    assertFalse(parser.hasNext());
+                    break;
+                }
+            }
+            assertTrue(conditionMet);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetArray(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
+             JsonParser parser = createParser(version, source)) {
+
+            assertEquals(Event.START_OBJECT, parser.next());
+
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Event.VALUE_STRING, parser.next());
+
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Event.START_ARRAY, parser.next());
+
+            JsonArray value = parser.getArray();
+            assertEquals(Json.createArrayBuilder()
+                .add(Json.createArrayBuilder()
+                    .add(Json.createArrayBuilder()
+                        .add("ary1_1_1")
+                        .add("ary1_1_2")
+                        .add("ary1_1_3")
+                    )
+                    .add("ary1_2")
+                    .add(Json.createObjectBuilder()
+                        .add("ary1_3", Json.createObjectBuilder()
+                            .add("ary1_3_k1", "ary1_3_v1")))
+                )
+                .build(),
+                value);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetArrayWithInvalidContext(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
+             JsonParser parser = createParser(version, source)) {
+            assertThrows(IllegalStateException.class, parser::getArray);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetValueKeyName(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
+             JsonParser parser = createParser(version, source)) {
+
+            assertEquals(Event.START_OBJECT, parser.next());
+
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Json.createValue("key1"), parser.getValue());
+            assertEquals(Event.VALUE_STRING, parser.next());
+
+            assertEquals(Event.KEY_NAME, parser.next());
+            assertEquals(Json.createValue("key2"), parser.getValue());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetArrayStream(String version) {
+        try (JsonParser parser = createParser(version, new StringReader(String.format("- a%n- [ b, c ]%n- { d: 1 }%n- e%n")))) {
+            assertEquals(Event.START_ARRAY, parser.next());
+            Iterator<JsonValue> elements = parser.getArrayStream().iterator();
+
+            assertEquals(Json.createValue("a"), elements.next());
+            // Elements are read on demand
+            assertEquals(Event.VALUE_STRING, parser.currentEvent());
+
+            List<JsonValue> remaining = new ArrayList<>();
+            elements.forEachRemaining(remaining::add);
+
+            assertEquals(List.of(Json.createArrayBuilder().add("b").add("c").build(),
+                                 Json.createObjectBuilder().add("d", 1).build(),
+                                 Json.createValue("e")),
+                         remaining);
+            assertEquals(Event.END_ARRAY, parser.currentEvent());
+            assertFalse(parser.hasNext());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetObjectStream(String version) {
+        try (JsonParser parser = createParser(version, new StringReader(String.format("a: 1%nb: [ x ]%nc: { d: e }%n")))) {
+            assertEquals(Event.START_OBJECT, parser.next());
+            JsonObject result = parser.getObjectStream().collect(JsonCollectors.toJsonObject());
+
+            assertEquals(Json.createObjectBuilder()
+                             .add("a", 1)
+                             .add("b", Json.createArrayBuilder().add("x"))
+                             .add("c", Json.createObjectBuilder().add("d", "e"))
+                             .build(),
+                         result);
+            assertEquals(Event.END_OBJECT, parser.currentEvent());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testGetValueStream(String version) {
+        try (JsonParser parser = createParser(version, new StringReader(String.format("--- 1%n--- [ a ]%n--- { k: v }%n")))) {
+            List<JsonValue> documents = parser.getValueStream().collect(Collectors.toList());
+
+            assertEquals(List.of(Json.createValue(1),
+                                 Json.createArrayBuilder().add("a").build(),
+                                 Json.createObjectBuilder().add("k", "v").build()),
+                         documents);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testStreamsWithInvalidContext(String version) {
+        try (JsonParser parser = createParser(version, new StringReader(String.format("- a%n")))) {
+            assertThrows(IllegalStateException.class, parser::getArrayStream);
+            assertEquals(Event.START_ARRAY, parser.next());
+            assertThrows(IllegalStateException.class, parser::getObjectStream);
+            assertThrows(IllegalStateException.class, parser::getValueStream);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testSkipArrayFromNestedSequence(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/test1.yaml");
+             JsonParser parser = createParser(version, source)) {
+            boolean conditionMet = false;
+            while (parser.hasNext()) {
+                if (parser.next() == Event.VALUE_STRING && "ary1_1_2".equals(parser.getString())) {
+                    conditionMet = true;
+                    parser.skipArray();
+                    assertEquals(Event.END_ARRAY, parser.currentEvent());
+
+                    parser.skipArray();
+                    assertEquals(Event.END_ARRAY, parser.currentEvent());
+
+                    parser.skipArray();
+                    assertEquals(Event.END_ARRAY, parser.currentEvent());
+
+                    assertEquals(Event.END_OBJECT, parser.next());
+                    assertFalse(parser.hasNext());
+                    break;
+                }
+            }
+            assertTrue(conditionMet);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testMergeKeyWithOverrides(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/merge-key.yaml");
+             JsonParser parser = createParser(version, source)) {
+            parser.next();
+            JsonObject value = parser.getObject();
+            assertEquals(
+                Json.createObjectBuilder()
+                    .add("key1", "value1")
+                    .add("key2", Json.createObjectBuilder()
+                        .add("key2_1", "value2_1")
+                        .add("key2_2", "value2_2")
+                        .add("key2_3", "value2_3")
+                    )
+                    .add("key3", "value3")
+                    .add("key4", Json.createObjectBuilder()
+                        .add("key2_1", "value2_1")
+                        .add("key2_2", "value2_2")
+                        .add("key2_3", "value2_3_override_by_key4")
+                        .add("key4_1", "value4_1")
+                    )
+                    .add("key5", Json.createObjectBuilder()
+                        .add("key2_1", "value2_1")
+                        .add("key2_2", "value2_2")
+                        .add("key2_3", "value2_3_override_by_key4")
+                        .add("key4_1", "value4_1_override_by_key5")
+                        .add("key5_1", "value5_1")
+                    )
+                    .build(),
+                value
+            );
+        }
+
+        JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+        YamlQuery query = Yaml.createQuery("$.key5.key2_3");
+
+        try (InputStream source = getClass().getResourceAsStream("/merge-key.yaml");
+             var matches = Yaml.query(factory, new InputStreamReader(source, StandardCharsets.UTF_8), query)) {
+            // key4 gives the key explicitly, taking precedence over the entry it merges from key2
+            assertEquals(List.of(Json.createValue("value2_3_override_by_key4")), matches.collect(Collectors.toList()));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testMergeKeyWithinReplayedAnchor(String version) {
+        String yaml = String.format(""
+                + "a: &a { p: 1 }%n"
+                + "b: &b%n"
+                + "  <<: *a%n"
+                + "  x: 2%n"
+                + "c: *b%n");
+        JsonObject merged = Json.createObjectBuilder().add("p", 1).add("x", 2).build();
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml))) {
+            parser.next();
+            JsonObject value = parser.getObject();
+            assertEquals(merged, value.getJsonObject("b"));
+            assertEquals(merged, value.getJsonObject("c"));
+        }
+
+        JsonParserFactory factory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+
+        try (var matches = Yaml.query(factory, new StringReader(yaml), Yaml.createQuery("$.c.*"))) {
+            // Merged entries are final only once the mapping ends
+            assertEquals(List.of(Json.createValue(2), Json.createValue(1)), matches.collect(Collectors.toList()));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testMergeKeyAppliesOnlyToItsValue(String version) {
+        String yaml = String.format(""
+                + "a: &a { p: 1 }%n"
+                + "c: &c { q: 2 }%n"
+                + "d:%n"
+                + "  <<: *a%n"
+                + "  y: *c%n");
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml))) {
+            parser.next();
+            assertEquals(Json.createObjectBuilder()
+                    .add("p", 1)
+                    .add("y", Json.createObjectBuilder().add("q", 2))
+                    .build(),
+                parser.getObject().getJsonObject("d"));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testMergeKeyExplicitEntriesTakePrecedence(String version) {
+        String yaml = String.format(""
+                + "a: &a { x: 1, y: { p: 1 } }%n"
+                + "c: &c { x: 9, z: 9 }%n"
+                + "b: { x: 2, <<: *a }%n"
+                + "d: { <<: *a, <<: *c, y: 3 }%n");
+        JsonObject expected = Json.createObjectBuilder()
+                .add("a", Json.createObjectBuilder().add("x", 1).add("y", Json.createObjectBuilder().add("p", 1)))
+                .add("c", Json.createObjectBuilder().add("x", 9).add("z", 9))
+                .add("b", Json.createObjectBuilder().add("x", 2).add("y", Json.createObjectBuilder().add("p", 1)))
+                .add("d", Json.createObjectBuilder().add("x", 1).add("y", 3).add("z", 9))
+                .build();
+
+        for (JsonProvider provider : Arrays.asList(null, JsonProvider.provider())) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put(Yaml.Settings.YAML_VERSION, version);
+
+            if (provider != null) {
+                properties.put(Yaml.Settings.JSON_PROVIDER, provider);
+            }
+
+            try (JsonParser parser = Yaml.createParserFactory(properties).createParser(new StringReader(yaml))) {
+                parser.next();
+                assertEquals(expected, parser.getObject(), "provider=" + provider);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testMergeKeyWithInvalidSequenceAlias(String version) throws IOException {
+        try (InputStream source = getClass().getResourceAsStream("/merge-key-invalid.yaml");
+                JsonParser parser = createParser(version, source)) {
             parser.next();
             Throwable thrown = assertThrows(JsonParsingException.class, parser::getObject);
             assertTrue(thrown.getMessage().contains("Unable to expand merge key (<<)"));
         }
     }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testMergeKeyWithoutAliasIsInvalid(String version) {
+        JsonParserFactory compactFactory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+        JsonParserFactory providerFactory = Yaml.createParserFactory(Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.JSON_PROVIDER, JsonProvider.provider()));
+
+        for (JsonParserFactory factory : List.of(compactFactory, providerFactory)) {
+            for (String entry : List.of("<<: { x: 1 }", "<<: 1")) {
+                String yaml = String.format("a: { y: 2, %s }%n", entry);
+
+                try (JsonParser parser = factory.createParser(new StringReader(yaml))) {
+                    parser.next();
+                    JsonParsingException thrown = assertThrows(JsonParsingException.class, parser::getObject);
+                    assertTrue(thrown.getMessage().startsWith("Mapping entry has no key"));
+                    assertEquals(1, thrown.getLocation().getLineNumber());
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testNestedAnchorsRecordEachEventOnce(String version) throws IOException {
+        String yaml = String.format(""
+                + "---%n"
+                + "outer: &outer%n"
+                + "  middle: &middle%n"
+                + "    inner: &inner [ 1, 2 ]%n"
+                + "    other: *inner%n"
+                + "copyOuter: *outer%n"
+                + "copyMiddle: *middle%n"
+                + "copyInner: *inner%n");
+
+        try (JsonParser parser = createParser(version, new StringReader(yaml))) {
+            parser.next();
+            JsonObject value = parser.getObject();
+
+            JsonArray inner = Json.createArrayBuilder().add(1).add(2).build();
+            JsonObject middle = Json.createObjectBuilder().add("inner", inner).add("other", inner).build();
+            JsonObject outer = Json.createObjectBuilder().add("middle", middle).build();
+
+            assertEquals(Json.createObjectBuilder()
+                    .add("outer", outer)
+                    .add("copyOuter", outer)
+                    .add("copyMiddle", middle)
+                    .add("copyInner", inner)
+                    .build(),
+                value);
+
+            // {, middle, {, inner, [, 1, 2, ], other, *inner, }, }
+            assertEquals(12, ((YamlParser<?, ?>) parser).anchoredEvents.size());
+        }
+    }
 }
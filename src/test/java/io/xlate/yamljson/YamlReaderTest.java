@@ -19,7 +19,9 @@ import static io.xlate.yamljson.YamlTestHelper.VERSIONS_SOURCE;
 import static io.xlate.yamljson.YamlTestHelper.createReader;
 import static io.xlate.yamljson.YamlTestHelper.testEachVersion;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -28,16 +30,38 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import jakarta.json.JsonArray;
 import jakarta.json.JsonException;
+import jakarta.json.JsonNumber;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
+import jakarta.json.JsonReaderFactory;
+import jakarta.json.JsonString;
 import jakarta.json.JsonValue;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
 import jakarta.json.stream.JsonParsingException;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -160,4 +184,279 @@ class YamlReaderTest {
             assertEquals(errorMessage, thrown.getCause().getMessage());
         });
     }
+
+    YamlDocumentReader createDocumentReader(String version, String yaml) {
+        JsonReaderFactory factory = Yaml.createReaderFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+        return Yaml.createDocumentReader(factory, new StringReader(String.format(yaml)));
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testReadDocuments(String version) {
+        try (YamlDocumentReader reader = createDocumentReader(version, ""
+                + "---%n"
+                + "key1: &v value1%n"
+                + "key2: *v%n"
+                + "---%n"
+                + "- v1%n"
+                + "- v2%n"
+                + "---%n"
+                + "simpleValue%n"
+                + "---%n")) {
+
+            assertTrue(reader.hasNext());
+            JsonObject object = reader.next().asJsonObject();
+            assertEquals("value1", object.getString("key2"));
+
+            assertTrue(reader.hasNext());
+            // Anchors of the first document are released at its end
+            assertEquals(0, ((YamlDocuments) reader).parser.anchoredEvents.size());
+            assertEquals(List.of("v1", "v2"), reader.next().asJsonArray().getValuesAs(JsonString::getString));
+
+            assertTrue(reader.hasNext());
+            assertEquals("simpleValue", ((JsonString) reader.next()).getString());
+
+            assertTrue(reader.hasNext());
+            assertEquals(JsonValue.NULL, reader.next());
+
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testReadDocumentsEmptyStream(String version) {
+        try (YamlDocumentReader reader = createDocumentReader(version, "")) {
+            assertFalse(reader.hasNext());
+            assertThrows(NoSuchElementException.class, reader::next);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testReadDocumentsAliasOfPreviousDocument(String version) {
+        try (YamlDocumentReader reader = createDocumentReader(version, "---%nkey1: &v value1%n---%nkey2: *v%n")) {
+            assertEquals("value1", reader.next().asJsonObject().getString("key1"));
+            JsonException thrown = assertThrows(JsonException.class, reader::next);
+            assertEquals("Encountered alias of missing anchor", thrown.getCause().getMessage());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testStreamDocuments(String version) {
+        YamlDocumentReader reader = createDocumentReader(version, "--- 1%n--- 2%n--- 3%n");
+
+        try (Stream<JsonValue> documents = reader.stream()) {
+            assertEquals(List.of(1, 2, 3), documents.map(v -> ((JsonNumber) v).intValue()).collect(Collectors.toList()));
+        }
+
+        assertThrows(IllegalStateException.class, reader::hasNext);
+    }
+
+    static JsonReaderFactory pooledFactory(String version, int size) {
+        return Yaml.createReaderFactory(Map.of(
+            Yaml.Settings.YAML_VERSION, version,
+            Yaml.Settings.LOAD_BUFFER_POOL_SIZE, size));
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testDocumentsReleaseParserWhenFinished(String version) {
+        JsonReaderFactory factory = pooledFactory(version, 1);
+        byte[] valid = String.format("--- 1%n--- 2%n").getBytes(StandardCharsets.UTF_8);
+        byte[] invalid = String.format("--- 1%n--- [ 2%n").getBytes(StandardCharsets.UTF_8);
+
+        // Neither the readers nor the streams are closed
+        YamlDocumentReader reader = Yaml.createDocumentReader(factory, new StringReader("--- 1"));
+        assertEquals(1, ((JsonNumber) reader.next()).intValue());
+        assertFalse(reader.hasNext());
+        assertFalse(reader.hasNext());
+
+        YamlDocumentReader invalidReader = Yaml.createDocumentReader(factory, new StringReader(String.format("--- 1%n--- [ 2%n")));
+        assertEquals(1, ((JsonNumber) invalidReader.next()).intValue());
+        assertThrows(JsonParsingException.class, invalidReader::next);
+        assertFalse(invalidReader.hasNext());
+
+        assertEquals(2, Yaml.streamDocuments(factory, valid).count());
+        assertThrows(JsonParsingException.class, () -> Yaml.streamDocuments(factory, invalid).count());
+
+        Yaml.CacheStatistics statistics = Yaml.bufferPoolStatistics(factory);
+        assertEquals(1, statistics.getMisses());
+        assertEquals(3, statistics.getHits());
+        assertEquals(0, statistics.getEvictions());
+        assertNull(((YamlDocuments) reader).parser.buffers);
+        assertNull(((YamlDocuments) invalidReader).parser.buffers);
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testStreamDocumentsFindFirstReleasesParsersOnClose(String version) {
+        JsonReaderFactory factory = pooledFactory(version, 256);
+        byte[] yaml = documents(500).getBytes(StandardCharsets.UTF_8);
+
+        try (Stream<JsonValue> documents = Yaml.streamDocuments(factory, yaml)) {
+            assertEquals(0, documents.findFirst().orElseThrow().asJsonObject().getInt("id"));
+            // The parser of the stream is still open and holds its buffers
+            Yaml.createDocumentReader(factory, new StringReader("--- 1")).close();
+            assertEquals(2, Yaml.bufferPoolStatistics(factory).getMisses());
+        }
+
+        try (Stream<JsonValue> documents = Yaml.streamDocuments(factory, yaml).parallel()) {
+            assertEquals(0, documents.findFirst().orElseThrow().asJsonObject().getInt("id"));
+        }
+
+        final long created = Yaml.bufferPoolStatistics(factory).getMisses();
+        List<YamlDocumentReader> readers = new ArrayList<>();
+
+        // Every set of buffers created is idle: borrowing one more than were created misses once
+        while (Yaml.bufferPoolStatistics(factory).getMisses() == created) {
+            readers.add(Yaml.createDocumentReader(factory, new StringReader("--- 1")));
+        }
+
+        assertEquals(created + 1, readers.size());
+        assertEquals(0, Yaml.bufferPoolStatistics(factory).getEvictions());
+        readers.forEach(YamlDocumentReader::close);
+    }
+
+    static String documents(int count) {
+        StringBuilder yaml = new StringBuilder();
+
+        for (int i = 0; i < count; i++) {
+            yaml.append(String.format("---%nid: %d%ntext: |%n  ---%n  line%nitems: &i [ %d, %d ]%ncopy: *i%n", i, i, i + 1));
+        }
+
+        return yaml.toString();
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testStreamDocumentsParallelPreservesOrder(String version) {
+        JsonReaderFactory factory = Yaml.createReaderFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+        byte[] yaml = documents(500).getBytes(StandardCharsets.UTF_8);
+
+        List<Integer> ids = Yaml.streamDocuments(factory, yaml)
+            .parallel()
+            .map(JsonValue::asJsonObject)
+            .peek(document -> assertEquals(document.get("items"), document.get("copy")))
+            .map(document -> document.getInt("id"))
+            .collect(Collectors.toList());
+
+        assertEquals(IntStream.range(0, 500).boxed().collect(Collectors.toList()), ids);
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testStreamDocumentsFromPath(String version, @TempDir Path directory) throws IOException {
+        Path file = Files.write(directory.resolve("documents.yaml"), documents(20).getBytes(StandardCharsets.UTF_8));
+        JsonReaderFactory factory = Yaml.createReaderFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+
+        assertEquals(20, Yaml.streamDocuments(factory, file).parallel().count());
+    }
+
+    static String sequence(int count) {
+        StringBuilder yaml = new StringBuilder();
+
+        for (int i = 0; i < count; i++) {
+            yaml.append(String.format("- { id: %d, name: 'näme-%d' }%n", i, i));
+        }
+
+        return yaml.toString();
+    }
+
+    @ParameterizedTest
+    @MethodSource(VERSIONS_SOURCE)
+    void testCreateReaderFromPath(String version, @TempDir Path directory) throws IOException {
+        JsonReaderFactory readerFactory = Yaml.createReaderFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+        JsonParserFactory parserFactory = Yaml.createParserFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+
+        // The larger file exceeds the size from which files are mapped into memory
+        for (int count : new int[] { 10, 50_000 }) {
+            Path file = Files.write(directory.resolve("sequence-" + count + ".yaml"), sequence(count).getBytes(StandardCharsets.UTF_8));
+            assertEquals(count >= 50_000, Files.size(file) >= YamlParserFactory.MAP_THRESHOLD);
+
+            try (JsonReader reader = Yaml.createReader(readerFactory, file)) {
+                JsonArray result = reader.readArray();
+                assertEquals(count, result.size());
+                assertEquals("näme-" + (count - 1), result.getJsonObject(count - 1).getString("name"));
+            }
+
+            try (JsonParser parser = Yaml.createParser(parserFactory, file)) {
+                assertEquals(JsonParser.Event.START_ARRAY, parser.next());
+                assertEquals(count, parser.getArrayStream().count());
+            }
+        }
+    }
+
+    @Test
+    void testCreateReaderFromMissingPath(@TempDir Path directory) {
+        Path file = directory.resolve("missing.yaml");
+        JsonException thrown = assertThrows(JsonException.class, () -> Yaml.createReader(file));
+        assertEquals("Exception reading YAML file " + file, thrown.getMessage());
+    }
+
+    static ByteBuffer buffer(String type, byte[] bytes) {
+        switch (type) {
+        case "slice":
+            return ByteBuffer.allocate(bytes.length + 10).position(5).slice().put(bytes).flip();
+        case "direct":
+            return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        case "readOnly":
+            return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        default:
+            return ByteBuffer.wrap(bytes);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "heap, UTF-8", "slice, UTF-8", "direct, UTF-8", "readOnly, UTF-8", "heap, UTF-16", "direct, UTF-16" })
+    void testCreateReaderFromBuffer(String type, String charsetName) {
+        ByteBuffer buffer = buffer(type, sequence(100).getBytes(Charset.forName(charsetName)));
+
+        testEachVersion(version -> {
+            JsonReaderFactory factory = Yaml.createReaderFactory(Map.of(Yaml.Settings.YAML_VERSION, version));
+
+            try (JsonReader reader = Yaml.createReader(factory, buffer)) {
+                JsonArray result = reader.readArray();
+                assertEquals(100, result.size());
+                assertEquals("näme-99", result.getJsonObject(99).getString("name"));
+            }
+        });
+
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testDocumentSpliteratorKeepsDirectivesWithDocument() {
+        String yaml = "key1: value1\r\n...\r\n%TAG !e! tag:example.com,2000:\r\n--- !e!type\r\nkey2: value2\r\n";
+        ByteBuffer buffer = ByteBuffer.wrap(yaml.getBytes(StandardCharsets.UTF_8));
+        YamlParserFactory parserFactory = new YamlParserFactory(Map.of());
+
+        Spliterator<JsonValue> second = new YamlDocumentSpliterator(parserFactory, buffer);
+        Spliterator<JsonValue> first = second.trySplit();
+
+        assertNotNull(first);
+        assertNull(first.trySplit());
+        assertNull(second.trySplit());
+
+        List<JsonValue> documents = new ArrayList<>();
+        first.forEachRemaining(documents::add);
+        assertEquals(1, documents.size());
+        second.forEachRemaining(documents::add);
+        assertEquals(2, documents.size());
+
+        assertEquals("value1", documents.get(0).asJsonObject().getString("key1"));
+        assertEquals("value2", documents.get(1).asJsonObject().getString("key2"));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void testDocumentSpliteratorDoesNotSplitUtf16() {
+        ByteBuffer buffer = ByteBuffer.wrap(documents(10).getBytes(StandardCharsets.UTF_16));
+        Spliterator<JsonValue> documents = new YamlDocumentSpliterator(new YamlParserFactory(Map.of()), buffer);
+
+        assertNull(documents.trySplit());
+        assertEquals(10, StreamSupport.stream(documents, true).count());
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.xlate.yamljson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonValue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class YamlValuesTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 8, 9, 100 })
+    void testObjectEqualsParssonObject(int size) {
+        JsonObjectBuilder expected = Json.createObjectBuilder();
+        YamlObjectBuilder actual = new YamlObjectBuilder();
+
+        for (int i = 0; i < size; i++) {
+            expected.add("key" + i, i);
+            actual.add("key" + i, i);
+        }
+
+        JsonObject expectedObject = expected.build();
+        JsonObject actualObject = actual.build();
+
+        assertEquals(expectedObject, actualObject);
+        assertEquals(actualObject, expectedObject);
+        assertEquals(expectedObject.hashCode(), actualObject.hashCode());
+        assertEquals(expectedObject.toString(), actualObject.toString());
+        assertEquals(List.copyOf(expectedObject.keySet()), List.copyOf(actualObject.keySet()));
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(i, actualObject.getInt("key" + i));
+        }
+
+        assertFalse(actualObject.containsKey("missing"));
+        assertNull(actualObject.get("missing"));
+        assertNull(actualObject.get(null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 4, 20 })
+    void testDuplicateKeysKeepFirstPositionAndLastValue(int size) {
+        String[] keys = new String[size + 1];
+        JsonValue[] values = new JsonValue[size + 1];
+
+        for (int i = 0; i < size; i++) {
+            keys[i] = "key" + i;
+            values[i] = YamlNumber.of(i);
+        }
+
+        keys[size] = "key1";
+        values[size] = new YamlString("replaced");
+
+        JsonObject object = YamlObject.of(keys, values, 0, size + 1);
+
+        assertEquals(size, object.size());
+        assertEquals("replaced", object.getString("key1"));
+        assertEquals(List.of("key0", "key1", "key2"), List.copyOf(object.keySet()).subList(0, 3));
+        assertEquals(size - 1, object.getInt("key" + (size - 1)));
+    }
+
+    @Test
+    void testObjectAccessors() {
+        JsonObject object = new YamlObjectBuilder()
+                .add("s", "text")
+                .add("t", true)
+                .add("f", false)
+                .addNull("n")
+                .add("a", new YamlArrayBuilder().add(1))
+                .add("o", new YamlObjectBuilder().add("k", "v"))
+                .build();
+
+        assertEquals("text", object.getString("s"));
+        assertEquals("default", object.getString("t", "default"));
+        assertEquals(7, object.getInt("s", 7));
+        assertTrue(object.getBoolean("t"));
+        assertFalse(object.getBoolean("f"));
+        assertTrue(object.getBoolean("missing", true));
+        assertTrue(object.isNull("n"));
+        assertFalse(object.isNull("s"));
+        assertEquals(1, object.getJsonArray("a").getInt(0));
+        assertEquals("v", object.getJsonObject("o").getString("k"));
+        assertThrows(NullPointerException.class, () -> object.isNull("missing"));
+        assertThrows(NullPointerException.class, () -> object.getBoolean("missing"));
+        assertThrows(ClassCastException.class, () -> object.getBoolean("s"));
+        assertThrows(ClassCastException.class, () -> object.getInt("s"));
+        assertThrows(UnsupportedOperationException.class, () -> object.put("x", JsonValue.NULL));
+        assertThrows(UnsupportedOperationException.class, () -> object.remove("s"));
+    }
+
+    @Test
+    void testArrayBuilderIndexedOperations() {
+        JsonArray array = new YamlArrayBuilder()
+                .add("b")
+                .add(0, "a")
+                .add(2, 3)
+                .addNull()
+                .set(3, true)
+                .add(new BigDecimal("1.50"))
+                .remove(2)
+                .build();
+
+        assertEquals(Json.createArrayBuilder().add("a").add("b").add(true).add(new BigDecimal("1.50")).build(), array);
+        assertEquals("[\"a\",\"b\",true,1.50]", array.toString());
+        assertTrue(array.getBoolean(2));
+        assertEquals("default", array.getString(9, "default"));
+        assertThrows(IndexOutOfBoundsException.class, () -> new YamlArrayBuilder().add(1, "x"));
+        assertThrows(UnsupportedOperationException.class, () -> array.add(JsonValue.NULL));
+        assertSame(YamlArray.EMPTY, new YamlArrayBuilder().build());
+    }
+
+    @Test
+    void testStringEscaping() {
+        String value = "quote\" backslash\\ tab\t nl\n bell\u0007 unicodeé";
+        JsonValue expected = Json.createValue(value);
+        JsonValue actual = new YamlString(value);
+
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0, 1, -1, 42, Integer.MAX_VALUE, 1L << 32, -(1L << 40) - 7, Long.MAX_VALUE, Long.MIN_VALUE })
+    void testLongNumberMatchesBigDecimal(long value) {
+        JsonNumber number = YamlNumber.of(value);
+        JsonNumber decimal = YamlNumber.of(BigDecimal.valueOf(value));
+
+        assertEquals(decimal, number);
+        assertEquals(number, decimal);
+        assertEquals(decimal.hashCode(), number.hashCode());
+        assertEquals(Json.createValue(value), number);
+        assertEquals(Json.createValue(value).hashCode(), number.hashCode());
+        assertEquals(Long.toString(value), number.toString());
+        assertTrue(number.isIntegral());
+    }
+
+    @Test
+    void testConvertMapAndCollection() {
+        JsonObject object = new YamlObjectBuilder(Map.of("list", List.of(1, 2.5, "x"), "flag", false)).build();
+
+        assertEquals(Json.createObjectBuilder()
+                         .add("list", Json.createArrayBuilder().add(1).add(2.5).add("x"))
+                         .add("flag", false)
+                         .build(),
+                     object);
+        assertThrows(IllegalArgumentException.class, () -> YamlValues.toJsonValue(new Object()));
+    }
+}